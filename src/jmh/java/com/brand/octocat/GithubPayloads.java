@@ -0,0 +1,49 @@
+package com.brand.octocat;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * GitHub-shaped JSON for benchmarks, including the many fields this service ignores so that
+ * skipping them is part of what is measured.
+ */
+public final class GithubPayloads {
+
+    private GithubPayloads() {
+    }
+
+    public static String user(String login) {
+        return """
+                {"login":"%1$s","id":583231,"node_id":"MDQ6VXNlcjU4MzIzMQ==",
+                "avatar_url":"https://avatars.githubusercontent.com/u/583231?v=4","gravatar_id":"",
+                "url":"https://api.github.com/users/%1$s","html_url":"https://github.com/%1$s",
+                "followers_url":"https://api.github.com/users/%1$s/followers",
+                "repos_url":"https://api.github.com/users/%1$s/repos","type":"User","site_admin":false,
+                "name":"The Octocat","company":"@github","blog":"https://github.blog","location":"San Francisco",
+                "email":null,"hireable":null,"bio":null,"twitter_username":null,"public_repos":8,
+                "public_gists":8,"followers":9999,"following":9,"created_at":"2011-01-25T18:44:36Z",
+                "updated_at":"2025-01-22T12:19:22Z"}""".formatted(login);
+    }
+
+    public static String repos(String login, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> repo(login, i))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String repo(String login, int index) {
+        return """
+                {"id":%3$d,"node_id":"MDEwOlJlcG9zaXRvcnkxMjk2MjY5","name":"repo-%2$d",
+                "full_name":"%1$s/repo-%2$d","private":false,
+                "owner":{"login":"%1$s","id":583231,"avatar_url":"https://avatars.githubusercontent.com/u/583231?v=4",
+                "url":"https://api.github.com/users/%1$s","type":"User","site_admin":false},
+                "html_url":"https://github.com/%1$s/repo-%2$d","description":"Repository number %2$d",
+                "fork":false,"url":"https://api.github.com/repos/%1$s/repo-%2$d",
+                "created_at":"2011-01-26T19:01:12Z","updated_at":"2025-01-01T00:00:00Z",
+                "pushed_at":"2024-12-01T00:00:00Z","homepage":null,"size":108,"stargazers_count":80,
+                "watchers_count":80,"language":"Java","has_issues":true,"has_projects":true,
+                "forks_count":9,"archived":false,"disabled":false,"open_issues_count":0,
+                "license":{"key":"mit","name":"MIT License"},"topics":["octocat","api"],
+                "visibility":"public","default_branch":"main"}""".formatted(login, index, 1_000_000 + index);
+    }
+}
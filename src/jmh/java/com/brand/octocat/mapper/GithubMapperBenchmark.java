@@ -0,0 +1,55 @@
+package com.brand.octocat.mapper;
+
+import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GithubMapperBenchmark {
+
+    private final GithubMapper mapper = new GithubMapperImpl();
+
+    private final GithubUserResponse user = new GithubUserResponse("octocat", "The Octocat", "avatar-url",
+            "San Francisco", null, "https://api.github.com/users/octocat", OffsetDateTime.parse("2011-01-25T18:44:36Z"));
+
+    @State(Scope.Benchmark)
+    public static class Repos {
+
+        @Param({"0", "10", "100", "1000", "10000"})
+        private int repoCount;
+
+        private List<RepoDto> list;
+
+        @Setup
+        public void setup() {
+            list = IntStream.range(0, repoCount)
+                    .mapToObj(i -> new RepoDto("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public UserDto toUserDto(Repos repos) {
+        return mapper.toUserDto(user, repos.list);
+    }
+
+    @Benchmark
+    public String formatCreatedAt() {
+        return mapper.formatCreatedAt(user.createdAt());
+    }
+}
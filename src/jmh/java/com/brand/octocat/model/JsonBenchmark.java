@@ -0,0 +1,95 @@
+package com.brand.octocat.model;
+
+import com.brand.octocat.GithubPayloads;
+import com.brand.octocat.config.CachedUserCodec;
+import com.brand.octocat.config.EncodedUserCache;
+import com.brand.octocat.model.api.GithubReposPage;
+import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson work on the request path, with an {@link ObjectMapper} configured like the one
+ * Spring uses for RestTemplate and controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    @Param({"0", "100", "1000"})
+    private int repoCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final EncodedUserCache encodedUsers = new EncodedUserCache(objectMapper, true, DataSize.ofMegabytes(64),
+            DataSize.ofKilobytes(1));
+
+    private byte[] userJson;
+    private byte[] reposJson;
+    private UserDto userDto;
+    private String contentHash;
+
+    @Setup
+    public void setup() {
+        userJson = GithubPayloads.user("octocat").getBytes(StandardCharsets.UTF_8);
+        reposJson = GithubPayloads.repos("octocat", repoCount).getBytes(StandardCharsets.UTF_8);
+        userDto = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT",
+                IntStream.range(0, repoCount)
+                        .mapToObj(i -> new RepoDto("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                        .toList());
+        contentHash = CachedUserCodec.contentHash(userDto);
+    }
+
+    @Benchmark
+    public GithubUserResponse readUser() throws IOException {
+        return objectMapper.readValue(userJson, GithubUserResponse.class);
+    }
+
+    @Benchmark
+    public GithubReposPage readRepos() throws IOException {
+        return objectMapper.readValue(reposJson, GithubReposPage.class);
+    }
+
+    /**
+     * Plain data binding into a record array, as the client did before repos pages were
+     * read token by token; kept as the baseline for {@link #readRepos}.
+     */
+    @Benchmark
+    public BoundRepo[] readReposBound() throws IOException {
+        return objectMapper.readValue(reposJson, BoundRepo[].class);
+    }
+
+    @Benchmark
+    public byte[] writeUserDto() throws IOException {
+        return objectMapper.writeValueAsBytes(userDto);
+    }
+
+    /**
+     * What a cache hit costs in {@code GithubController} instead of {@link #writeUserDto}.
+     */
+    @Benchmark
+    public byte[] encodedUserDto() {
+        return encodedUsers.get(userDto, contentHash).json();
+    }
+
+    public record BoundRepo(String name, String url) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.OctocatApplication;
+import com.brand.octocat.model.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of a cache miss with the profile and repos fetched one after the other or side by
+ * side ({@code github.fetch.parallel}), against a {@link StubGithubServer} that takes
+ * {@code latencyMillis} per response. Side by side, a miss should cost about one round trip
+ * instead of two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ColdFetchBenchmark {
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    @Param({"20"})
+    private int latencyMillis;
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private StubGithubServer github;
+    private ConfigurableApplicationContext context;
+    private GithubService service;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        github = new StubGithubServer(30, Duration.ofMillis(latencyMillis));
+        context = new SpringApplicationBuilder(OctocatApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--github.base-url=" + github.baseUrl(),
+                        "--github.fetch.parallel=" + parallel,
+                        "--github.cache.users.disk.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.com.brand.octocat=WARN");
+        service = context.getBean(GithubService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        github.close();
+    }
+
+    @Benchmark
+    public UserDto cacheMiss() {
+        return service.getUser("user-" + misses.incrementAndGet());
+    }
+}
@@ -0,0 +1,70 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.OctocatApplication;
+import com.brand.octocat.model.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link GithubService#getUser} with the application's real wiring against a
+ * {@link StubGithubServer}: a hit served from the cache, and a miss that goes through the
+ * HTTP client, JSON parsing, mapping and caching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GithubServiceBenchmark {
+
+    @Param({"30", "100"})
+    private int repoCount;
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private StubGithubServer github;
+    private ConfigurableApplicationContext context;
+    private GithubService service;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        github = new StubGithubServer(repoCount);
+        context = new SpringApplicationBuilder(OctocatApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--github.base-url=" + github.baseUrl(),
+                        "--github.cache.users.disk.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.com.brand.octocat=WARN");
+        service = context.getBean(GithubService.class);
+        service.getUser("octocat");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        github.close();
+    }
+
+    @Benchmark
+    public UserDto cacheHit() {
+        return service.getUser("octocat");
+    }
+
+    @Benchmark
+    public UserDto cacheMiss() {
+        return service.getUser("user-" + misses.incrementAndGet());
+    }
+}
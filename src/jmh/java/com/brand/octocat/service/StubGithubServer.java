@@ -0,0 +1,77 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.GithubPayloads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in for the GitHub API that answers any user with the same profile and
+ * a single page of repos, so benchmarks measure this service rather than the network. An
+ * optional latency is added to every response to stand in for the round trip to GitHub.
+ */
+class StubGithubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final byte[] reposJson;
+    private final Duration latency;
+
+    StubGithubServer(int repoCount) throws IOException {
+        this(repoCount, Duration.ZERO);
+    }
+
+    StubGithubServer(int repoCount, Duration latency) throws IOException {
+        this(repoCount, latency, 8);
+    }
+
+    /**
+     * {@code handlerThreads} bounds how many requests the stub serves at once, each holding
+     * its thread for the latency.
+     */
+    StubGithubServer(int repoCount, Duration latency, int handlerThreads) throws IOException {
+        // without TCP_NODELAY, small responses stall on delayed ACKs and every miss measures ~40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.reposJson = GithubPayloads.repos("octocat", repoCount).getBytes(StandardCharsets.UTF_8);
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), Math.max(100, handlerThreads));
+        server.setExecutor(Executors.newFixedThreadPool(handlerThreads));
+        server.createContext("/users/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        byte[] body = path.length > 3 && "repos".equals(path[3])
+                ? reposJson
+                : GithubPayloads.user(path[2]).getBytes(StandardCharsets.UTF_8);
+
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,104 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.config.GithubClient;
+import com.brand.octocat.config.GithubResilience;
+import com.brand.octocat.config.HttpTransportConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * A burst of {@code requests} concurrent requests, each blocking on a GitHub call that takes
+ * {@code latencyMillis}, handled on a fixed pool of {@code platformThreads} (a saturated
+ * Tomcat) or on one virtual thread per request. The pool needs requests / platformThreads
+ * rounds of latency; virtual threads should need about one. {@code virtual} needs Java 21,
+ * so run it with {@code -PjavaVersion=21}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"200"})
+    private int requests;
+
+    @Param({"50"})
+    private int platformThreads;
+
+    @Param({"100"})
+    private int latencyMillis;
+
+    private StubGithubServer github;
+    private GithubClient client;
+    private AsyncTaskExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        github = new StubGithubServer(0, Duration.ofMillis(latencyMillis), requests);
+        HttpTransportConfig transport = new HttpTransportConfig(false, requests, requests, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofMinutes(5));
+        GithubResilience resilience = new GithubResilience(1, Duration.ofMillis(1), Duration.ofMillis(1), 0.1, 10,
+                requests, Duration.ofSeconds(30));
+        client = new GithubClient(new RestTemplateBuilder()
+                .rootUri(github.baseUrl())
+                .requestFactory(transport::githubRequestFactory)
+                .build(), new SyncTaskExecutor(), resilience);
+        ReflectionTestUtils.setField(client, "userPath", "/users/{username}");
+
+        if ("virtual".equals(threads)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("bench-");
+            virtual.setVirtualThreads(true);
+            executor = virtual;
+        } else {
+            ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+            platform.setCorePoolSize(platformThreads);
+            platform.setMaxPoolSize(platformThreads);
+            platform.initialize();
+            executor = platform;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor platform) {
+            platform.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtual) {
+            virtual.close();
+        }
+        github.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<?>> futures = IntStream.range(0, requests)
+                .<Future<?>>mapToObj(i -> executor.submit(() -> client.getUser("octocat")))
+                .toList();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+}
@@ -0,0 +1,160 @@
+package com.brand.octocat.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Configuration
+@EnableScheduling
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+    public static final String USERS_STALE_CACHE = "users-stale";
+
+    private final DataSize maxSize;
+    private final Duration expireAfterWrite;
+    private final Duration expireAfterAccess;
+    private final DataSize staleMaxSize;
+    private final Duration maxStaleness;
+    private final DataSize nearCacheSize;
+    private final Duration nearCacheTtl;
+
+    public CacheConfig(@Value("${github.cache.users.max-size}") DataSize maxSize,
+                       @Value("${github.cache.users.expire-after-write}") Duration expireAfterWrite,
+                       @Value("${github.cache.users.expire-after-access}") Duration expireAfterAccess,
+                       @Value("${github.cache.users.stale-max-size}") DataSize staleMaxSize,
+                       @Value("${github.cache.users.max-staleness}") Duration maxStaleness,
+                       @Value("${github.cache.users.shared.near-cache-size}") DataSize nearCacheSize,
+                       @Value("${github.cache.users.shared.near-cache-ttl}") Duration nearCacheTtl) {
+        this.maxSize = maxSize;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.staleMaxSize = staleMaxSize;
+        this.maxStaleness = maxStaleness;
+        this.nearCacheSize = nearCacheSize;
+        this.nearCacheTtl = nearCacheTtl;
+    }
+
+    /**
+     * Caffeine evicts with W-TinyLFU once the estimated footprint of all cached users
+     * exceeds {@code max-size}; stats are recorded so Actuator can publish hit, miss and
+     * eviction counters for the cache. Expiry here bounds retention only: freshness is
+     * decided by the service's {@code ttl}, so expired-but-retained entries can still be
+     * revalidated with their ETags.
+     * <p>
+     * Entries evicted from {@code users} move to {@code users-stale}, which is only read
+     * when GitHub fails and keeps them for at most {@code max-staleness}. With the disk tier
+     * enabled, {@code users} is a {@link TieredCache} whose memory tier can stay small. With a
+     * shared backend, the Caffeine cache shrinks to a near-cache of {@code near-cache-size} in
+     * front of a {@link SharedCache}, and the disk tier, if enabled, sits behind both.
+     */
+    @Bean
+    public CacheManager cacheManager(Optional<DiskUserStore> diskUserStore,
+                                     Optional<SharedUserStore> sharedUserStore) {
+        Cache<Object, Object> staleUsers = Caffeine.newBuilder()
+                .maximumWeight(staleMaxSize.toBytes())
+                .weigher(UserWeigher::weigh)
+                .expireAfterWrite(maxStaleness)
+                .recordStats()
+                .build();
+
+        boolean shared = sharedUserStore.isPresent();
+        CaffeineCache users = new CaffeineCache(USERS_CACHE, Caffeine.newBuilder()
+                .maximumWeight(shared ? nearCacheSize.toBytes() : maxSize.toBytes())
+                .weigher(UserWeigher::weigh)
+                .expireAfterWrite(shared ? nearCacheTtl : expireAfterWrite)
+                .expireAfterAccess(expireAfterAccess)
+                .evictionListener((key, value, cause) -> {
+                    if (key != null && value != null) {
+                        staleUsers.put(key, value);
+                    }
+                })
+                .recordStats()
+                .build());
+
+        org.springframework.cache.Cache usersTiers = users;
+        if (shared) {
+            usersTiers = new SharedCache(usersTiers, sharedUserStore.get(), expireAfterWrite);
+        }
+        if (diskUserStore.isPresent()) {
+            usersTiers = new TieredCache(usersTiers, diskUserStore.get());
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(usersTiers, new CaffeineCache(USERS_STALE_CACHE, staleUsers)));
+        cacheManager.initializeCaches();
+        return cacheManager;
+    }
+
+    /**
+     * Persistent tier behind {@code users}, retaining entries for {@code max-staleness} so
+     * they can still be revalidated or served as stale after a restart.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "github.cache.users.disk.enabled", havingValue = "true")
+    public DiskUserStore diskUserStore(@Value("${github.cache.users.disk.path}") Path path) {
+        return new DiskUserStore(path, maxStaleness);
+    }
+
+    /**
+     * Shared backend for {@code users} across replicas, selected by
+     * {@code github.cache.users.shared.backend}.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "github.cache.users.shared.backend", havingValue = "redis")
+    public SharedUserStore redisSharedUserStore(
+            @Value("${github.cache.users.shared.redis-uri}") String uri,
+            @Value("${github.cache.users.shared.redis-timeout}") Duration timeout,
+            @Value("${github.cache.users.shared.redis-connect-timeout}") Duration connectTimeout,
+            @Value("${github.cache.users.shared.redis-reconnect-interval}") Duration reconnectInterval) {
+        return new RedisSharedUserStore(uri, timeout, connectTimeout, reconnectInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "github.cache.users.shared.backend", havingValue = "in-memory")
+    public SharedUserStore inMemorySharedUserStore() {
+        return new InMemorySharedUserStore();
+    }
+
+    /**
+     * Publishes the Caffeine statistics of the in-memory tier when {@code users} is tiered.
+     */
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return (cache, tags) -> caffeineMeterBinder(cache.getMemoryTier(), tags);
+    }
+
+    /**
+     * Publishes the Caffeine statistics of the near-cache when {@code users} is shared.
+     */
+    @Bean
+    public CacheMeterBinderProvider<SharedCache> sharedCacheMeterBinderProvider() {
+        return (cache, tags) -> caffeineMeterBinder(cache.getNearCache(), tags);
+    }
+
+    private static MeterBinder caffeineMeterBinder(org.springframework.cache.Cache cache, Iterable<Tag> tags) {
+        if (cache instanceof SharedCache shared) {
+            return caffeineMeterBinder(shared.getNearCache(), tags);
+        }
+        return cache instanceof CaffeineCache caffeine
+                ? new CaffeineCacheMeterBinderProvider().getMeterBinder(caffeine, tags)
+                : null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of a {@link CachedUser} for the shared cache: a version byte, the fetch
+ * and modification times, the content hash, the validators and the user's fields in declaration
+ * order, with no field names. A value written with another version decodes to {@code null} so it
+ * is simply refetched.
+ */
+public final class CachedUserCodec {
+
+    private static final byte VERSION = 3;
+
+    private CachedUserCodec() {
+    }
+
+    public static byte[] encode(CachedUser cached) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(cached.fetchedAt().toEpochMilli());
+            out.writeLong(cached.modifiedAt().toEpochMilli());
+            writeString(out, cached.contentHash());
+            writeValidators(out, cached.userValidators());
+            writeValidators(out, cached.reposValidators());
+            writeUser(out, cached.user());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A hash of the user's fields in their binary form, equal for users with equal data.
+     */
+    public static String contentHash(UserDto user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeUser(out, user);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return DigestUtils.md5DigestAsHex(bytes.toByteArray());
+    }
+
+    public static CachedUser decode(byte[] value) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            if (in.readByte() != VERSION) {
+                return null;
+            }
+            Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+            Instant modifiedAt = Instant.ofEpochMilli(in.readLong());
+            String contentHash = readString(in);
+            List<Validator> userValidators = readValidators(in);
+            List<Validator> reposValidators = readValidators(in);
+
+            String userName = readString(in);
+            String displayName = readString(in);
+            String avatar = readString(in);
+            String geoLocation = readString(in);
+            String email = readString(in);
+            String url = readString(in);
+            String createdAt = readString(in);
+            int repoCount = in.readInt();
+            List<RepoDto> repos = null;
+            if (repoCount >= 0) {
+                repos = new ArrayList<>(repoCount);
+                for (int i = 0; i < repoCount; i++) {
+                    repos.add(new RepoDto(readString(in), readString(in)));
+                }
+            }
+
+            UserDto user = new UserDto(userName, displayName, avatar, geoLocation, email, url, createdAt,
+                    repos == null ? null : List.copyOf(repos));
+            return new CachedUser(user, userValidators, reposValidators, fetchedAt, modifiedAt, contentHash);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeUser(DataOutputStream out, UserDto user) throws IOException {
+        writeString(out, user.userName());
+        writeString(out, user.displayName());
+        writeString(out, user.avatar());
+        writeString(out, user.geoLocation());
+        writeString(out, user.email());
+        writeString(out, user.url());
+        writeString(out, user.createdAt());
+        if (user.repos() == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(user.repos().size());
+            for (RepoDto repo : user.repos()) {
+                writeString(out, repo.name());
+                writeString(out, repo.url());
+            }
+        }
+    }
+
+    private static void writeValidators(DataOutputStream out, List<Validator> validators) throws IOException {
+        out.writeShort(validators.size());
+        for (Validator validator : validators) {
+            writeString(out, validator.etag());
+            writeString(out, validator.lastModified());
+        }
+    }
+
+    private static List<Validator> readValidators(DataInputStream in) throws IOException {
+        int count = in.readShort();
+        List<Validator> validators = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            validators.add(new Validator(readString(in), readString(in)));
+        }
+        return List.copyOf(validators);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.brand.octocat.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row it
+ * opens and rejects calls for {@code openDuration}; the first call after that is let through
+ * as a half-open probe, whose outcome closes or re-opens the circuit. A probe that ends
+ * without an outcome, because it failed locally, is {@linkplain #release() released} so the
+ * next call probes instead.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Getter
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private final AtomicLong transitions = new AtomicLong();
+    private volatile Instant openedAt = Instant.EPOCH;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Clock clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    public boolean tryAcquirePermission() {
+        return switch (state.get()) {
+            case CLOSED -> true;
+            case HALF_OPEN -> probing.compareAndSet(false, true);
+            case OPEN -> !clock.instant().isBefore(openedAt.plus(openDuration))
+                    && transition(State.OPEN, State.HALF_OPEN)
+                    && probing.compareAndSet(false, true);
+        };
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        State previous = state.getAndSet(State.CLOSED);
+        if (previous != State.CLOSED) {
+            transitioned(previous, State.CLOSED);
+        }
+        probing.set(false);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            openedAt = clock.instant();
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = clock.instant();
+            transition(State.CLOSED, State.OPEN);
+        }
+        probing.set(false);
+    }
+
+    /**
+     * Gives back a permission whose call says nothing about the upstream's health.
+     */
+    public void release() {
+        probing.set(false);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long getTransitions() {
+        return transitions.get();
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        transitioned(from, to);
+        return true;
+    }
+
+    private void transitioned(State from, State to) {
+        transitions.incrementAndGet();
+        if (to == State.OPEN) {
+            log.warn("Circuit breaker '{}' {} -> {} for {}", name, from, to, openDuration);
+        } else {
+            log.info("Circuit breaker '{}' {} -> {}", name, from, to);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.cache.CachedUser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent tier of the users cache, kept off-heap in an H2 MVStore file so a restarted
+ * instance starts warm. Each value is the entry's fetch time followed by the JSON of the
+ * {@link CachedUser}, validators included, so expiry can be checked without parsing the
+ * JSON. Entries older than the retention are dropped on read and by the background
+ * compaction, which also reclaims file space.
+ * <p>
+ * Writes are taken off the caller's thread: {@link #put} parks the entry as pending and a
+ * single writer thread serialises it to the file, so repeated writes of a user that pile up
+ * in the meantime are written once. Reads see pending entries, and an eviction drops the
+ * pending write along with the stored one.
+ * <p>
+ * If the file cannot be opened, for example because another process holds it, the store
+ * stays empty and the cache runs memory-only.
+ */
+@Slf4j
+public class DiskUserStore implements MeterBinder, AutoCloseable {
+
+    private static final String MAP_NAME = "users";
+    private static final int MAX_COMPACT_MILLIS = 1_000;
+    private static final int CLOSE_TIMEOUT_SECONDS = 5;
+
+    // Entries outlive deployments, so fields added or dropped since they were written are tolerated
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final Duration retention;
+    private final MVStore store;
+    private final MVMap<String, byte[]> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final ConcurrentMap<String, CachedUser> pending = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "users-disk-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Clock clock = Clock.systemUTC();
+
+    public DiskUserStore(Path file, Duration retention) {
+        this.retention = retention;
+
+        MVStore opened = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            opened = new MVStore.Builder().fileName(file.toString()).compress().open();
+            log.info("Users disk cache opened at {}", file);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Users disk cache at {} is unavailable, running memory-only", file, ex);
+        }
+        this.store = opened;
+        this.entries = opened == null ? null : opened.openMap(MAP_NAME);
+    }
+
+    public Optional<CachedUser> get(String username) {
+        if (entries == null) {
+            return Optional.empty();
+        }
+        CachedUser unwritten = pending.get(username);
+        if (unwritten != null) {
+            if (isExpired(unwritten.fetchedAt())) {
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(unwritten);
+        }
+        byte[] value = entries.get(username);
+        if (value == null) {
+            return Optional.empty();
+        }
+        if (isExpired(value)) {
+            entries.remove(username);
+            return Optional.empty();
+        }
+
+        try {
+            CachedUser user = objectMapper.readValue(value, Long.BYTES, value.length - Long.BYTES, CachedUser.class);
+            hits.incrementAndGet();
+            return Optional.of(user);
+        } catch (IOException ex) {
+            log.warn("Dropping unreadable disk cache entry for '{}'", username, ex);
+            entries.remove(username);
+            return Optional.empty();
+        }
+    }
+
+    public void put(String username, CachedUser user) {
+        if (entries == null) {
+            return;
+        }
+        if (pending.put(username, user) == null) {
+            writer.execute(() -> write(username));
+        }
+    }
+
+    public void evict(String username) {
+        if (entries != null) {
+            pending.compute(username, (key, unwritten) -> {
+                entries.remove(key);
+                return null;
+            });
+        }
+    }
+
+    public void clear() {
+        if (entries != null) {
+            pending.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * Writes every pending entry on the calling thread.
+     */
+    void flush() {
+        List.copyOf(pending.keySet()).forEach(this::write);
+    }
+
+    /**
+     * Writes the pending entry, if still there, under its map lock so a concurrent eviction
+     * cannot be overtaken by the write.
+     */
+    private void write(String username) {
+        pending.computeIfPresent(username, (key, user) -> {
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(user);
+                entries.put(key, ByteBuffer.allocate(Long.BYTES + json.length)
+                        .putLong(user.fetchedAt().toEpochMilli())
+                        .put(json)
+                        .array());
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Could not write disk cache entry for '{}'", key, ex);
+            }
+            return null;
+        });
+    }
+
+    public long size() {
+        return entries == null ? 0 : entries.sizeAsLong();
+    }
+
+    /**
+     * Drops expired entries, then rewrites sparsely used file chunks for up to a second.
+     */
+    @Scheduled(fixedDelayString = "${github.cache.users.disk.compaction-interval}",
+            initialDelayString = "${github.cache.users.disk.compaction-interval}")
+    public void compact() {
+        if (store == null || store.isClosed()) {
+            return;
+        }
+
+        int removed = 0;
+        for (String username : List.copyOf(entries.keySet())) {
+            byte[] value = entries.get(username);
+            if (value != null && isExpired(value)) {
+                entries.remove(username);
+                removed++;
+            }
+        }
+        store.commit();
+        store.compactFile(MAX_COMPACT_MILLIS);
+        log.debug("Users disk cache compacted, {} expired entries removed, {} remain", removed, size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.cache.users.disk.entries", this, DiskUserStore::size)
+                .description("Entries in the persistent users cache tier")
+                .register(registry);
+        Gauge.builder("github.cache.users.disk.size", this,
+                        diskStore -> diskStore.store == null ? 0 : diskStore.store.getFileStore().size())
+                .description("Size of the persistent users cache file")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("github.cache.users.disk.hits", hits, AtomicLong::get)
+                .description("Users served from the persistent tier after a memory miss")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (store != null && !store.isClosed()) {
+            flush();
+            store.close();
+        }
+    }
+
+    private boolean isExpired(byte[] value) {
+        return isExpired(Instant.ofEpochMilli(ByteBuffer.wrap(value).getLong()));
+    }
+
+    private boolean isExpired(Instant fetchedAt) {
+        return !fetchedAt.plus(retention).isAfter(clock.instant());
+    }
+}
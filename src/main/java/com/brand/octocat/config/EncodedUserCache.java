@@ -0,0 +1,164 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.dto.UserDto;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the JSON body of recently served users, plus a gzip copy of larger ones, so that a
+ * cache hit is answered with the stored bytes instead of a Jackson pass over every repo.
+ * Each body carries a strong ETag derived from the content hash stored with the user, see
+ * {@link #etag} and {@link #gzipEtag}, so a request can be matched against it before encoding.
+ * <p>
+ * Bodies are keyed by username and content hash, so any instance of an unchanged user, such
+ * as one promoted from the disk or shared tier, finds the same body, and only a user whose
+ * data changed is encoded again. The cache holds the encoded bytes alone, which is what its
+ * weigher counts. Encoding happens on the request path, so gzip runs at its fastest level.
+ */
+@Slf4j
+@Component
+public class EncodedUserCache implements MeterBinder {
+
+    private static final String FIELDS_FILTER = "userFields";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper projectingMapper;
+    private final int gzipMinSize;
+    private final Cache<String, EncodedUser> bodies;
+
+    public EncodedUserCache(ObjectMapper objectMapper,
+                            @Value("${github.cache.users.encoded.enabled}") boolean enabled,
+                            @Value("${github.cache.users.encoded.max-size}") DataSize maxSize,
+                            @Value("${github.cache.users.encoded.gzip-min-size}") DataSize gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.projectingMapper = objectMapper.copy().addMixIn(UserDto.class, FieldsFilterMixin.class);
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        this.bodies = enabled
+                ? Caffeine.newBuilder()
+                        .maximumWeight(maxSize.toBytes())
+                        .weigher((String key, EncodedUser encoded) -> key.length() + encoded.size())
+                        .recordStats()
+                        .build()
+                : null;
+        log.info("Encoded users cache: enabled={}, max-size={}", enabled, maxSize);
+    }
+
+    /**
+     * Returns the encoded body of the user, from the cache when this user was encoded before
+     * with the same content hash. A missing hash is computed here. With the cache disabled the
+     * user is serialised on each call, without gzip.
+     */
+    public EncodedUser get(UserDto user, String contentHash) {
+        String hash = contentHash != null ? contentHash : CachedUserCodec.contentHash(user);
+        if (bodies == null) {
+            return new EncodedUser(write(user), null, etag(hash), null);
+        }
+        return bodies.get(user.userName() + ':' + hash, key -> encode(user, hash));
+    }
+
+    /**
+     * Serialises only the given fields of the user, named as in its JSON. Projected and paged
+     * bodies differ per request, so they are neither cached nor compressed.
+     */
+    public EncodedUser encode(UserDto user, Set<String> fields) {
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .addFilter(FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+        byte[] json;
+        try {
+            json = projectingMapper.writer(filters).writeValueAsBytes(user);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise user '" + user.userName() + "'", ex);
+        }
+        return new EncodedUser(json, null, quote(DigestUtils.md5DigestAsHex(json)), null);
+    }
+
+    /**
+     * The ETag of the plain JSON body of a user with the given content hash.
+     */
+    public static String etag(String contentHash) {
+        return quote(contentHash);
+    }
+
+    /**
+     * Strong validators must differ between content codings, so the gzip variant gets its own.
+     */
+    public static String gzipEtag(String contentHash) {
+        return quote(contentHash + "-gzip");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (bodies != null) {
+            CaffeineCacheMetrics.monitor(registry, bodies, "users-encoded");
+        }
+    }
+
+    private EncodedUser encode(UserDto user, String hash) {
+        byte[] json = write(user);
+        if (json.length < gzipMinSize) {
+            return new EncodedUser(json, null, etag(hash), null);
+        }
+        return new EncodedUser(json, gzip(json), etag(hash), gzipEtag(hash));
+    }
+
+    private byte[] write(UserDto user) {
+        try {
+            return objectMapper.writeValueAsBytes(user);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise user '" + user.userName() + "'", ex);
+        }
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @JsonFilter(FIELDS_FILTER)
+    private interface FieldsFilterMixin {
+    }
+
+    /**
+     * A user's JSON body and, for bodies of at least {@code gzip-min-size}, its gzip encoding,
+     * each with its ETag.
+     */
+    public record EncodedUser(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+        int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
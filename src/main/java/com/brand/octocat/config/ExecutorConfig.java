@@ -0,0 +1,89 @@
+package com.brand.octocat.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    private final int poolSize;
+    private final int queueCapacity;
+    private final int refreshPoolSize;
+    private final int refreshQueueCapacity;
+    private final int batchMaxConcurrentFetches;
+    private final int batchQueueCapacity;
+
+    public ExecutorConfig(@Value("${github.fetch.pool-size}") int poolSize,
+                          @Value("${github.fetch.queue-capacity}") int queueCapacity,
+                          @Value("${github.refresh.pool-size}") int refreshPoolSize,
+                          @Value("${github.refresh.queue-capacity}") int refreshQueueCapacity,
+                          @Value("${github.batch.max-concurrent-fetches}") int batchMaxConcurrentFetches,
+                          @Value("${github.batch.queue-capacity}") int batchQueueCapacity) {
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+        this.refreshPoolSize = refreshPoolSize;
+        this.refreshQueueCapacity = refreshQueueCapacity;
+        this.batchMaxConcurrentFetches = batchMaxConcurrentFetches;
+        this.batchQueueCapacity = batchQueueCapacity;
+    }
+
+    /**
+     * Bounded pool used to fan out upstream GitHub calls. When the queue is full the
+     * caller runs the task itself, so saturation degrades to sequential fetching
+     * instead of rejecting requests. On Java 21 with {@code spring.threads.virtual.enabled}
+     * every fetch gets its own virtual thread instead; upstream concurrency is then bounded
+     * by the HTTP connection pool alone.
+     */
+    @Bean
+    public AsyncTaskExecutor githubExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("github-fetch-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("github-fetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Bounded pool for stale-while-revalidate refreshes. Refreshes are best effort, so a full
+     * queue rejects the task and the entry is refreshed on a later read instead.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor githubRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshPoolSize);
+        executor.setMaxPoolSize(refreshPoolSize);
+        executor.setQueueCapacity(refreshQueueCapacity);
+        executor.setThreadNamePrefix("github-refresh-");
+        return executor;
+    }
+
+    /**
+     * Pool for cache misses of batch requests; its size is the global cap on concurrent batch
+     * fetches. A full queue rejects, and the affected usernames are reported as unavailable.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor githubBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchMaxConcurrentFetches);
+        executor.setMaxPoolSize(batchMaxConcurrentFetches);
+        executor.setQueueCapacity(batchQueueCapacity);
+        executor.setThreadNamePrefix("github-batch-");
+        return executor;
+    }
+}
@@ -1,26 +1,46 @@
 package com.brand.octocat.config;
 
 import com.brand.octocat.error.UsernameNotFoundException;
-import com.brand.octocat.model.api.GithubRepoResponse;
+import com.brand.octocat.model.api.Conditional;
+import com.brand.octocat.model.api.GithubReposPage;
 import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.dto.RepoDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class GithubClient {
 
+    private static final Pattern LAST_PAGE = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>\\s*;\\s*rel=\"last\"");
+
     private final RestTemplate restTemplate;
+    private final TaskExecutor githubExecutor;
+    private final GithubResilience resilience;
 
     @Value("${github.user-path}")
     private String userPath;
@@ -28,13 +48,35 @@ public class GithubClient {
     @Value("${github.repos-path}")
     private String reposPath;
 
+    @Value("${github.repos-per-page}")
+    private int reposPerPage;
+
+    @Value("${github.repos-max-concurrent-pages}")
+    private int maxConcurrentPages;
+
     public GithubUserResponse getUser(String username) {
+        return getUser(username, List.of()).body();
+    }
+
+    /**
+     * Fetches the user profile, sending the given validators as {@code If-None-Match} /
+     * {@code If-Modified-Since} when present.
+     */
+    public Conditional<GithubUserResponse> getUser(String username, List<Validator> validators) {
         log.info("Calling GitHub API for user '{}'", username);
 
         try {
-            GithubUserResponse response = restTemplate.getForObject(userPath, GithubUserResponse.class, username);
-            log.debug("GitHub user response received for '{}': {}", username, response);
-            return response;
+            HttpEntity<Void> request = conditionalEntity(validators.isEmpty() ? null : validators.get(0));
+            ResponseEntity<GithubUserResponse> response = resilience.execute(GithubResilience.USER_ENDPOINT,
+                    () -> restTemplate.exchange(userPath, HttpMethod.GET, request, GithubUserResponse.class, username));
+
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                log.debug("GitHub user '{}' not modified", username);
+                return Conditional.unchanged();
+            }
+
+            log.debug("GitHub user response received for '{}': {}", username, response.getBody());
+            return Conditional.of(response.getBody(), List.of(Validator.from(response.getHeaders())));
 
         } catch (HttpClientErrorException.NotFound ex) {
             log.warn("GitHub user not found. Path='{}', username='{}'.", userPath, username, ex);
@@ -46,17 +88,201 @@ public class GithubClient {
         }
     }
 
-    public List<GithubRepoResponse> getRepos(String username) {
+    public List<RepoDto> getRepos(String username) {
+        return getRepos(username, List.of(), null).body();
+    }
+
+    /**
+     * Fetches every page of the user's repos. Given the previously fetched repos with one
+     * validator per page, the pages are revalidated instead, see {@link #revalidateRepos}.
+     * Pages are parsed straight into {@link RepoDto}s, see {@link GithubReposPage}.
+     */
+    public Conditional<List<RepoDto>> getRepos(String username, List<Validator> validators, List<RepoDto> previous) {
         log.info("Calling GitHub API for repos of '{}'", username);
 
-        GithubRepoResponse[] repos = restTemplate.getForObject(reposPath, GithubRepoResponse[].class,username);
-        List<GithubRepoResponse> list =
-                Optional.ofNullable(repos)
-                        .map(Arrays::asList)
-                        .orElseGet(List::of);
+        if (!validators.isEmpty() && previous != null) {
+            return revalidateRepos(username, validators, previous);
+        }
+
+        ResponseEntity<GithubReposPage> firstPage = getReposPage(username, 1, null);
+        int lastPage = lastPage(firstPage.getHeaders());
+
+        List<ResponseEntity<GithubReposPage>> pages = new ArrayList<>(lastPage);
+        pages.add(firstPage);
+        if (lastPage > 1) {
+            log.debug("GitHub repos of '{}' span {} pages", username, lastPage);
+            pages.addAll(getPages(username, 2, lastPage, page -> getReposPage(username, page, null)));
+        }
+
+        List<RepoDto> list = new ArrayList<>(lastPage * reposPerPage);
+        List<Validator> pageValidators = new ArrayList<>(lastPage);
+        for (ResponseEntity<GithubReposPage> page : pages) {
+            list.addAll(toList(page.getBody()));
+            pageValidators.add(Validator.from(page.getHeaders()));
+        }
 
         log.debug("GitHub repo count for '{}': {}", username, list.size());
-        return list;
+        return Conditional.of(list, pageValidators);
     }
-}
 
+    /**
+     * Fetches the user's repos one page at a time, handing each page to the consumer before
+     * requesting the next, so a slow consumer slows the fetch instead of pages piling up.
+     */
+    public void forEachReposPage(String username, Consumer<List<RepoDto>> pageConsumer) {
+        log.info("Streaming GitHub repos of '{}'", username);
+
+        try {
+            ResponseEntity<GithubReposPage> firstPage = getReposPage(username, 1, null);
+            int lastPage = lastPage(firstPage.getHeaders());
+            pageConsumer.accept(toList(firstPage.getBody()));
+
+            for (int page = 2; page <= lastPage; page++) {
+                pageConsumer.accept(toList(getReposPage(username, page, null).getBody()));
+            }
+
+        } catch (RestClientException ex) {
+            log.error("Error streaming GitHub repos of '{}'", username, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Revalidates the known pages together. A page answered with 304 keeps its slice of the
+     * previous repos, so only changed pages are read, and the result is a 304 only if none
+     * changed. Pages beyond the known ones are found through the {@code Link} header of a
+     * changed page or, when nothing changed but the last page was full, by probing the next
+     * page; an empty probe is kept as a known page so it is revalidated rather than probed again.
+     */
+    private Conditional<List<RepoDto>> revalidateRepos(String username, List<Validator> validators,
+                                                       List<RepoDto> previous) {
+        int knownPages = validators.size();
+        List<ResponseEntity<GithubReposPage>> pages = new ArrayList<>(getPages(username, 1, knownPages,
+                page -> getReposPage(username, page, validators.get(page - 1))));
+
+        int lastPage = 0;
+        for (int page = 1; page <= knownPages; page++) {
+            ResponseEntity<GithubReposPage> response = pages.get(page - 1);
+            if (!isNotModified(response)) {
+                lastPage = Math.max(lastPage, lastPage(response.getHeaders(), page));
+            }
+        }
+
+        if (lastPage == 0) {
+            if (previous.size() < knownPages * reposPerPage) {
+                log.debug("GitHub repos of '{}' not modified", username);
+                return Conditional.unchanged();
+            }
+            ResponseEntity<GithubReposPage> probe = getReposPage(username, knownPages + 1, null);
+            pages.add(probe);
+            lastPage = toList(probe.getBody()).isEmpty()
+                    ? knownPages + 1
+                    : lastPage(probe.getHeaders(), knownPages + 1);
+        }
+
+        if (lastPage > pages.size()) {
+            log.debug("GitHub repos of '{}' grew to {} pages", username, lastPage);
+            pages.addAll(getPages(username, pages.size() + 1, lastPage, page -> getReposPage(username, page, null)));
+        }
+
+        List<RepoDto> list = new ArrayList<>(lastPage * reposPerPage);
+        List<Validator> pageValidators = new ArrayList<>(lastPage);
+        for (int page = 1; page <= lastPage; page++) {
+            ResponseEntity<GithubReposPage> response = pages.get(page - 1);
+            if (isNotModified(response)) {
+                int from = Math.min((page - 1) * reposPerPage, previous.size());
+                list.addAll(previous.subList(from, Math.min(from + reposPerPage, previous.size())));
+                pageValidators.add(validators.get(page - 1));
+            } else {
+                list.addAll(toList(response.getBody()));
+                pageValidators.add(Validator.from(response.getHeaders()));
+            }
+        }
+
+        log.debug("GitHub repo count for '{}': {}", username, list.size());
+        return Conditional.of(list, pageValidators);
+    }
+
+    private static boolean isNotModified(ResponseEntity<?> response) {
+        return response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED);
+    }
+
+    /**
+     * Fetches pages firstPage..lastPage with at most {@code maxConcurrentPages} requests in flight.
+     * The calling thread works through the pages as well, so the fetch completes even when
+     * no pool thread is free; results are slotted by page number to keep GitHub's order.
+     */
+    private <T> List<T> getPages(String username, int firstPage, int lastPage, IntFunction<T> fetchPage) {
+        int pageCount = lastPage - firstPage + 1;
+        List<T> pages = new ArrayList<>(Collections.nCopies(pageCount, null));
+        AtomicInteger nextPage = new AtomicInteger(firstPage);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(pageCount);
+
+        Runnable worker = () -> {
+            int page;
+            while ((page = nextPage.getAndIncrement()) <= lastPage) {
+                try {
+                    if (failure.get() == null) {
+                        pages.set(page - firstPage, fetchPage.apply(page));
+                    }
+                } catch (RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+
+        int helpers = Math.min(maxConcurrentPages, pageCount) - 1;
+        for (int i = 0; i < helpers; i++) {
+            githubExecutor.execute(worker);
+        }
+        worker.run();
+
+        try {
+            done.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while fetching repos for '" + username + "'", ex);
+        }
+
+        if (failure.get() != null) {
+            log.error("Error calling GitHub for repos of '{}'", username, failure.get());
+            throw failure.get();
+        }
+        return pages;
+    }
+
+    private ResponseEntity<GithubReposPage> getReposPage(String username, int page, Validator validator) {
+        HttpEntity<Void> request = conditionalEntity(validator);
+        return resilience.execute(GithubResilience.REPOS_ENDPOINT,
+                () -> restTemplate.exchange(reposPath + "?per_page={perPage}&page={page}", HttpMethod.GET,
+                        request, GithubReposPage.class, username, reposPerPage, page));
+    }
+
+    private static HttpEntity<Void> conditionalEntity(Validator validator) {
+        return validator == null || validator.isEmpty() ? null : new HttpEntity<>(validator.toConditionalHeaders());
+    }
+
+    static int lastPage(HttpHeaders headers) {
+        return lastPage(headers, 1);
+    }
+
+    /**
+     * The last page announced by GitHub, or the given page itself, which GitHub leaves out of
+     * the {@code Link} header when it is the last one.
+     */
+    static int lastPage(HttpHeaders headers, int page) {
+        String link = headers.getFirst(HttpHeaders.LINK);
+        if (link == null) {
+            return page;
+        }
+        Matcher matcher = LAST_PAGE.matcher(link);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : page;
+    }
+
+    static List<RepoDto> toList(GithubReposPage page) {
+        return page == null ? List.of() : page.repos();
+    }
+}
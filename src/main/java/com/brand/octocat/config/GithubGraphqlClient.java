@@ -0,0 +1,172 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.api.GithubGraphqlResponse;
+import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.dto.RepoDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches a user and their repos through GitHub's GraphQL API, selecting only the fields the
+ * {@link com.brand.octocat.mapper.GithubMapper} needs. One query returns the profile with the
+ * first page of repos; larger accounts are followed page by page through the cursor.
+ * <p>
+ * Results are shaped like the REST responses, URLs included, so both modes produce the same
+ * DTOs. GraphQL has no conditional requests, so every fetch is a full one.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "github.upstream", havingValue = "graphql")
+public class GithubGraphqlClient {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    static final String QUERY = """
+            query($login: String!, $first: Int!, $after: String) {
+              user(login: $login) {
+                login name avatarUrl location email createdAt
+                repositories(first: $first, after: $after, privacy: PUBLIC, ownerAffiliations: OWNER,
+                             orderBy: {field: NAME, direction: ASC}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { name nameWithOwner }
+                }
+              }
+            }""";
+
+    static final String PROFILE_QUERY = """
+            query($login: String!) {
+              user(login: $login) { login name avatarUrl location email createdAt }
+            }""";
+
+    private final RestTemplate restTemplate;
+    private final GithubResilience resilience;
+    private final String baseUrl;
+    private final String path;
+    private final String token;
+    private final int pageSize;
+
+    public GithubGraphqlClient(RestTemplate restTemplate, GithubResilience resilience,
+                               @Value("${github.base-url}") String baseUrl,
+                               @Value("${github.graphql.path}") String path,
+                               @Value("${github.token}") String token,
+                               @Value("${github.repos-per-page}") int reposPerPage) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalStateException("github.token must be set when github.upstream is graphql");
+        }
+        this.restTemplate = restTemplate;
+        this.resilience = resilience;
+        this.baseUrl = baseUrl;
+        this.path = path;
+        this.token = token;
+        this.pageSize = Math.min(reposPerPage, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Fetches the profile alone, without touching the user's repositories.
+     */
+    public GithubUserResponse getUser(String username) {
+        log.info("Calling GitHub GraphQL API for profile of '{}'", username);
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", username);
+        try {
+            return toUserResponse(query(username, PROFILE_QUERY, variables));
+        } catch (UsernameNotFoundException ex) {
+            log.warn("GitHub user not found. username='{}'.", username);
+            throw ex;
+        } catch (RestClientException ex) {
+            log.error("Error calling GitHub GraphQL API for profile of '{}'", username, ex);
+            throw ex;
+        }
+    }
+
+    public UserWithRepos getUserWithRepos(String username) {
+        log.info("Calling GitHub GraphQL API for user '{}'", username);
+
+        try {
+            GithubGraphqlResponse.User user = queryPage(username, null);
+            List<RepoDto> repos = new ArrayList<>();
+            GithubGraphqlResponse.Repositories page = user.repositories();
+            addRepos(repos, page);
+
+            while (page.pageInfo().hasNextPage()) {
+                page = queryPage(username, page.pageInfo().endCursor()).repositories();
+                addRepos(repos, page);
+            }
+
+            log.debug("GitHub repo count for '{}': {}", username, repos.size());
+            return new UserWithRepos(toUserResponse(user), repos);
+
+        } catch (UsernameNotFoundException ex) {
+            log.warn("GitHub user not found. username='{}'.", username);
+            throw ex;
+
+        } catch (RestClientException ex) {
+            log.error("Error calling GitHub GraphQL API for user '{}'", username, ex);
+            throw ex;
+        }
+    }
+
+    private GithubGraphqlResponse.User queryPage(String username, String cursor) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", username);
+        variables.put("first", pageSize);
+        variables.put("after", cursor);
+        return query(username, QUERY, variables);
+    }
+
+    private GithubGraphqlResponse.User query(String username, String query, Map<String, Object> variables) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(Map.of("query", query, "variables", variables),
+                headers);
+
+        GithubGraphqlResponse response = resilience.execute(GithubResilience.GRAPHQL_ENDPOINT,
+                () -> restTemplate.postForObject(path, request, GithubGraphqlResponse.class));
+
+        GithubGraphqlResponse.User user = response == null || response.data() == null ? null : response.data().user();
+        if (user != null) {
+            return user;
+        }
+        List<GithubGraphqlResponse.Error> errors = response == null || response.errors() == null
+                ? List.of()
+                : response.errors();
+        if (errors.isEmpty() || errors.stream().anyMatch(error -> "NOT_FOUND".equals(error.type()))) {
+            throw new UsernameNotFoundException(username);
+        }
+        throw new RestClientException("GitHub GraphQL query for '" + username + "' failed: "
+                + errors.get(0).message());
+    }
+
+    private void addRepos(List<RepoDto> repos, GithubGraphqlResponse.Repositories page) {
+        for (GithubGraphqlResponse.Repository repo : page.nodes()) {
+            repos.add(new RepoDto(repo.name(), baseUrl + "/repos/" + repo.nameWithOwner()));
+        }
+    }
+
+    /**
+     * GraphQL reports a hidden email as an empty string where REST has null.
+     */
+    private GithubUserResponse toUserResponse(GithubGraphqlResponse.User user) {
+        String email = user.email() == null || user.email().isEmpty() ? null : user.email();
+        return new GithubUserResponse(user.login(), user.name(), user.avatarUrl(), user.location(), email,
+                baseUrl + "/users/" + user.login(), user.createdAt());
+    }
+
+    public record UserWithRepos(GithubUserResponse user, List<RepoDto> repos) {
+    }
+}
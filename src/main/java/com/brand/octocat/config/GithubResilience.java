@@ -0,0 +1,161 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.CircuitOpenException;
+import com.brand.octocat.error.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries idempotent GitHub calls on 5xx and I/O errors with decorrelated-jitter backoff,
+ * within a shared {@link RetryBudget}, behind one {@link CircuitBreaker} per endpoint. Errors
+ * raised on this side, such as the rate-limit guard refusing a call, do not count towards
+ * the breaker either way.
+ */
+@Slf4j
+@Component
+public class GithubResilience implements MeterBinder {
+
+    public static final String USER_ENDPOINT = "user";
+    public static final String REPOS_ENDPOINT = "repos";
+    public static final String GRAPHQL_ENDPOINT = "graphql";
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final RetryBudget retryBudget;
+    private final Map<String, CircuitBreaker> breakers;
+
+    private Counter retries;
+
+    public GithubResilience(@Value("${github.resilience.max-attempts}") int maxAttempts,
+                            @Value("${github.resilience.base-delay}") Duration baseDelay,
+                            @Value("${github.resilience.max-delay}") Duration maxDelay,
+                            @Value("${github.resilience.retry-budget-ratio}") double retryBudgetRatio,
+                            @Value("${github.resilience.retry-budget-min}") int retryBudgetMin,
+                            @Value("${github.resilience.failure-threshold}") int failureThreshold,
+                            @Value("${github.resilience.open-duration}") Duration openDuration) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.retryBudget = new RetryBudget(retryBudgetRatio, retryBudgetMin);
+        this.breakers = Map.of(
+                USER_ENDPOINT, new CircuitBreaker(USER_ENDPOINT, failureThreshold, openDuration, Clock.systemUTC()),
+                REPOS_ENDPOINT, new CircuitBreaker(REPOS_ENDPOINT, failureThreshold, openDuration, Clock.systemUTC()),
+                GRAPHQL_ENDPOINT, new CircuitBreaker(GRAPHQL_ENDPOINT, failureThreshold, openDuration,
+                        Clock.systemUTC()));
+    }
+
+    public <T> T execute(String endpoint, Supplier<T> call) {
+        CircuitBreaker breaker = breaker(endpoint);
+        retryBudget.recordRequest();
+
+        long delay = baseDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquirePermission()) {
+                throw new CircuitOpenException(endpoint);
+            }
+
+            boolean recorded = false;
+            try {
+                T result = call.get();
+                breaker.onSuccess();
+                recorded = true;
+                return result;
+
+            } catch (RuntimeException ex) {
+                if (isLocal(ex)) {
+                    throw ex;
+                }
+                if (!isRetryable(ex)) {
+                    // the upstream answered, so it is healthy from the breaker's point of view
+                    breaker.onSuccess();
+                    recorded = true;
+                    throw ex;
+                }
+
+                breaker.onFailure();
+                recorded = true;
+                if (attempt >= maxAttempts || !retryBudget.tryAcquireRetry()) {
+                    throw ex;
+                }
+
+                delay = nextDelay(delay);
+                log.warn("GitHub {} call failed (attempt {}/{}), retrying in {}ms: {}",
+                        endpoint, attempt, maxAttempts, delay, ex.getMessage());
+                if (retries != null) {
+                    retries.increment();
+                }
+                sleep(delay, ex);
+            } finally {
+                if (!recorded) {
+                    breaker.release();
+                }
+            }
+        }
+    }
+
+    public CircuitBreaker breaker(String endpoint) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        if (breaker == null) {
+            throw new IllegalArgumentException("Unknown GitHub endpoint: " + endpoint);
+        }
+        return breaker;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        retries = Counter.builder("github.retries")
+                .description("Retried GitHub calls")
+                .register(registry);
+        Gauge.builder("github.retry.budget", retryBudget, RetryBudget::getAvailableRetries)
+                .description("Retries currently allowed by the retry budget")
+                .register(registry);
+
+        breakers.values().forEach(breaker -> {
+            Gauge.builder("github.circuit.state", breaker, b -> b.getState().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tag("endpoint", breaker.getName())
+                    .register(registry);
+            FunctionCounter.builder("github.circuit.transitions", breaker, CircuitBreaker::getTransitions)
+                    .description("Circuit breaker state changes")
+                    .tag("endpoint", breaker.getName())
+                    .register(registry);
+        });
+    }
+
+    private long nextDelay(long previousDelay) {
+        long upper = Math.max(baseDelayMillis + 1, previousDelay * 3);
+        return Math.min(maxDelayMillis, ThreadLocalRandom.current().nextLong(baseDelayMillis, upper));
+    }
+
+    static boolean isLocal(Throwable ex) {
+        return ex instanceof RateLimitExceededException;
+    }
+
+    private static boolean isRetryable(RuntimeException ex) {
+        return ex instanceof HttpServerErrorException || ex instanceof ResourceAccessException;
+    }
+
+    private static void sleep(long millis, RuntimeException failure) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
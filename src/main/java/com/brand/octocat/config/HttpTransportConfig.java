@@ -0,0 +1,97 @@
+package com.brand.octocat.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpTransportConfig {
+
+    private final boolean http2;
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration poolAcquireTimeout;
+    private final Duration idleTimeout;
+    private final Duration connectionTtl;
+
+    public HttpTransportConfig(@Value("${github.http.http2}") boolean http2,
+                               @Value("${github.http.max-connections}") int maxConnections,
+                               @Value("${github.http.max-connections-per-route}") int maxConnectionsPerRoute,
+                               @Value("${github.http.connect-timeout}") Duration connectTimeout,
+                               @Value("${github.http.read-timeout}") Duration readTimeout,
+                               @Value("${github.http.pool-acquire-timeout}") Duration poolAcquireTimeout,
+                               @Value("${github.http.idle-timeout}") Duration idleTimeout,
+                               @Value("${github.http.connection-ttl}") Duration connectionTtl) {
+        this.http2 = http2;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.poolAcquireTimeout = poolAcquireTimeout;
+        this.idleTimeout = idleTimeout;
+        this.connectionTtl = connectionTtl;
+    }
+
+    /**
+     * Keep-alive transport for GitHub calls. Pooled connections keep their TLS session, and
+     * new handshakes resume from the SSL context's session cache. With {@code http2} the
+     * JDK client multiplexes all calls over a single connection, so the pool limits don't apply.
+     */
+    @Bean
+    public ClientHttpRequestFactory githubRequestFactory() {
+        return http2 ? http2RequestFactory() : pooledRequestFactory();
+    }
+
+    private ClientHttpRequestFactory pooledRequestFactory() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTtl))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .evictExpiredConnections()
+                // retries are owned by GithubResilience, so they are budgeted and seen by the circuit breaker
+                .disableAutomaticRetries()
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private ClientHttpRequestFactory http2RequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+}
@@ -0,0 +1,91 @@
+package com.brand.octocat.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for a shared store: replicas that share one instance behave like
+ * nodes sharing a remote store, so the shared cache runs without an external service.
+ */
+public class InMemorySharedUserStore implements SharedUserStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Instant> leases = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final Clock clock;
+
+    public InMemorySharedUserStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemorySharedUserStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt().isAfter(clock.instant())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        entries.put(key, new Entry(value, clock.instant().plus(ttl)));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public void publish(String message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean tryLease(String key, Duration lease) {
+        Instant now = clock.instant();
+        AtomicBoolean taken = new AtomicBoolean();
+        leases.compute(key, (k, expiresAt) -> {
+            if (expiresAt != null && expiresAt.isAfter(now)) {
+                return expiresAt;
+            }
+            taken.set(true);
+            return now.plus(lease);
+        });
+        return taken.get();
+    }
+
+    @Override
+    public void releaseLease(String key) {
+        leases.remove(key);
+    }
+
+    private record Entry(byte[] value, Instant expiresAt) {
+    }
+}
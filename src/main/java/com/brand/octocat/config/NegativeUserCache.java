@@ -0,0 +1,106 @@
+package com.brand.octocat.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers usernames GitHub answered with 404 for {@code ttl}, so repeated lookups of
+ * nonexistent or mistyped names fail locally instead of spending rate-limit budget.
+ * <ul>
+ *     <li>{@code exact} keeps up to {@code max-size} names in a Caffeine cache;</li>
+ *     <li>{@code bloom} keeps a {@link RotatingBloomFilter} sized for {@code max-size} names,
+ *     whose memory stays fixed under a flood of random names at the cost of rare false
+ *     positives, i.e. an existing user answered with 404 for at most {@code ttl};</li>
+ *     <li>{@code off} disables negative caching.</li>
+ * </ul>
+ * GitHub usernames are case-insensitive, so names are compared in lower case.
+ */
+@Slf4j
+@Component
+public class NegativeUserCache implements MeterBinder {
+
+    public enum Mode { EXACT, BLOOM, OFF }
+
+    private final Mode mode;
+    private final Cache<String, Boolean> exact;
+    private final RotatingBloomFilter bloom;
+    private final AtomicLong hits = new AtomicLong();
+
+    @Autowired
+    public NegativeUserCache(@Value("${github.cache.not-found.mode}") Mode mode,
+                             @Value("${github.cache.not-found.ttl}") Duration ttl,
+                             @Value("${github.cache.not-found.max-size}") int maxSize,
+                             @Value("${github.cache.not-found.false-positive-rate}") double falsePositiveRate) {
+        this(mode, ttl, maxSize, falsePositiveRate, Clock.systemUTC());
+    }
+
+    public NegativeUserCache(Mode mode, Duration ttl, int maxSize, double falsePositiveRate, Clock clock) {
+        this.mode = mode;
+        this.exact = mode == Mode.EXACT
+                ? Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumSize(maxSize)
+                        .ticker(() -> clock.millis() * 1_000_000)
+                        .<String, Boolean>build()
+                : null;
+        this.bloom = mode == Mode.BLOOM ? new RotatingBloomFilter(maxSize, falsePositiveRate, ttl, clock) : null;
+        log.info("Negative user cache: mode={}, ttl={}, max-size={}", mode, ttl, maxSize);
+    }
+
+    public boolean isKnownMissing(String username) {
+        boolean missing = switch (mode) {
+            case EXACT -> exact.getIfPresent(key(username)) != null;
+            case BLOOM -> bloom.mightContain(key(username));
+            case OFF -> false;
+        };
+        if (missing) {
+            hits.incrementAndGet();
+            log.debug("'{}' is a known missing user, skipping GitHub", username);
+        }
+        return missing;
+    }
+
+    public void recordMissing(String username) {
+        switch (mode) {
+            case EXACT -> exact.put(key(username), Boolean.TRUE);
+            case BLOOM -> bloom.put(key(username));
+            case OFF -> {
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("github.cache.users.not-found.hits", hits, AtomicLong::get)
+                .description("Lookups answered with 404 from the negative cache")
+                .register(registry);
+        Gauge.builder("github.cache.users.not-found.entries", this, NegativeUserCache::entries)
+                .description("Usernames currently remembered as missing")
+                .register(registry);
+    }
+
+    private long entries() {
+        return switch (mode) {
+            case EXACT -> exact.estimatedSize();
+            case BLOOM -> bloom.entries();
+            case OFF -> 0;
+        };
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
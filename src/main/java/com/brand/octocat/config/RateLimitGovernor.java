@@ -0,0 +1,246 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.RateLimitExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks GitHub's rate-limit budget from {@code X-RateLimit-*} and {@code Retry-After}
+ * response headers. Once the budget is exhausted, calls fail locally with
+ * {@link RateLimitExceededException} until the reset time instead of reaching GitHub.
+ * Calls carry {@code github.token} when it is set, and the headers then reflect the token's
+ * global usage, so the budget stays accurate when several instances share one token. The
+ * reserve kept for user-facing calls is a fraction of the reported limit, so it scales from
+ * the 60 calls an unauthenticated client gets per hour to the 5000 of a token.
+ * <p>
+ * GitHub counts REST ({@code core}) and GraphQL calls in separate buckets, named by
+ * {@code X-RateLimit-Resource}, so each bucket is tracked on its own and a call is gated by
+ * the bucket it spends. Background work is gated by the bucket of {@code github.upstream}.
+ */
+@Slf4j
+@Component
+public class RateLimitGovernor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    static final String REMAINING = "X-RateLimit-Remaining";
+    static final String LIMIT = "X-RateLimit-Limit";
+    static final String RESET = "X-RateLimit-Reset";
+    static final String RESOURCE = "X-RateLimit-Resource";
+
+    static final String CORE = "core";
+    static final String GRAPHQL = "graphql";
+
+    private final double reserveFraction;
+    private final String backgroundResource;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private Clock clock = Clock.systemUTC();
+
+    public RateLimitGovernor(@Value("${github.rate-limit.reserve-fraction}") double reserveFraction,
+                             @Value("${github.upstream}") String upstream) {
+        this.reserveFraction = reserveFraction;
+        this.backgroundResource = GRAPHQL.equalsIgnoreCase(upstream) ? GRAPHQL : CORE;
+        buckets.put(CORE, new Bucket());
+        buckets.put(GRAPHQL, new Bucket());
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String resource = resourceOf(request.getURI());
+        checkBudget(resource);
+
+        ClientHttpResponse response = execution.execute(request, body);
+        Bucket bucket = update(resource, response.getStatusCode().value(), response.getHeaders());
+
+        if (isRateLimited(response.getStatusCode().value(), response.getHeaders())) {
+            response.close();
+            throw new RateLimitExceededException(bucket.retryAfter(clock.instant()));
+        }
+        return response;
+    }
+
+    /**
+     * The same budget tracking as {@link #intercept}, for the reactive {@code WebClient}.
+     */
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> {
+            String resource = resourceOf(request.url());
+            return Mono.fromRunnable(() -> checkBudget(resource))
+                    .then(Mono.defer(() -> next.exchange(request)))
+                    .flatMap(response -> {
+                        int status = response.statusCode().value();
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        Bucket bucket = update(resource, status, headers);
+
+                        if (isRateLimited(status, headers)) {
+                            return response.releaseBody().then(Mono.error(
+                                    new RateLimitExceededException(bucket.retryAfter(clock.instant()))));
+                        }
+                        return Mono.just(response);
+                    });
+        };
+    }
+
+    /**
+     * Whether optional work, such as background refreshes, may spend budget. It is held back
+     * once the remaining budget drops to the configured reserve so user-facing calls keep it.
+     */
+    public boolean allowsBackgroundWork() {
+        Instant now = clock.instant();
+        Bucket bucket = bucket(backgroundResource);
+        if (bucket.isExhausted(now)) {
+            return false;
+        }
+        long current = bucket.remaining;
+        return current < 0 || current > reserve(bucket) || !now.isBefore(bucket.resetAt);
+    }
+
+    /**
+     * Calls optional work may still spend before the budget drops to the reserve, or -1 while
+     * no GitHub response has reported the budget yet. A window that has reset since the last
+     * response counts as full.
+     */
+    public long backgroundBudget() {
+        Instant now = clock.instant();
+        Bucket bucket = bucket(backgroundResource);
+        if (bucket.isExhausted(now)) {
+            return 0;
+        }
+        long current = now.isBefore(bucket.resetAt) ? bucket.remaining : Math.max(bucket.remaining, bucket.limit);
+        return current < 0 ? -1 : Math.max(0, current - reserve(bucket));
+    }
+
+    /**
+     * Calls of the bucket held back for user-facing requests, none while its limit is not known.
+     */
+    private long reserve(Bucket bucket) {
+        long current = bucket.limit;
+        return current < 0 ? 0 : (long) Math.ceil(current * reserveFraction);
+    }
+
+    public long getRemaining(String resource) {
+        return bucket(resource).remaining;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String resource : List.of(CORE, GRAPHQL)) {
+            Gauge.builder("github.ratelimit.remaining", this, governor -> governor.bucket(resource).remaining)
+                    .description("Remaining GitHub API requests in the current window, -1 if unknown")
+                    .tag("resource", resource)
+                    .register(registry);
+            Gauge.builder("github.ratelimit.limit", this, governor -> governor.bucket(resource).limit)
+                    .description("GitHub API request limit of the current window, -1 if unknown")
+                    .tag("resource", resource)
+                    .register(registry);
+        }
+    }
+
+    void checkBudget(String resource) {
+        Instant now = clock.instant();
+        Bucket bucket = bucket(resource);
+        if (bucket.isExhausted(now)) {
+            Duration retryAfter = bucket.retryAfter(now);
+            log.warn("GitHub {} rate limit exhausted, failing fast for {}s", resource, retryAfter.toSeconds());
+            throw new RateLimitExceededException(retryAfter);
+        }
+    }
+
+    /**
+     * Records the budget reported by a response in the bucket named by {@code X-RateLimit-Resource},
+     * or in the bucket of the request when GitHub leaves the header out.
+     */
+    Bucket update(String requestResource, int status, HttpHeaders headers) {
+        String headerResource = headers.getFirst(RESOURCE);
+        Bucket bucket = bucket(headerResource == null || headerResource.isBlank() ? requestResource : headerResource);
+        Long headerRemaining = parseLong(headers.getFirst(REMAINING));
+        Long headerLimit = parseLong(headers.getFirst(LIMIT));
+        Long headerReset = parseLong(headers.getFirst(RESET));
+        Long retryAfterSeconds = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+
+        if (headerRemaining != null) {
+            bucket.remaining = headerRemaining;
+        }
+        if (headerLimit != null) {
+            bucket.limit = headerLimit;
+        }
+        if (headerReset != null) {
+            bucket.resetAt = Instant.ofEpochSecond(headerReset);
+        }
+        if (retryAfterSeconds != null && isThrottleStatus(status)) {
+            bucket.blockedUntil = clock.instant().plusSeconds(retryAfterSeconds);
+        }
+        return bucket;
+    }
+
+    static String resourceOf(URI uri) {
+        String path = uri.getPath();
+        return path != null && path.endsWith("/graphql") ? GRAPHQL : CORE;
+    }
+
+    private Bucket bucket(String resource) {
+        return buckets.computeIfAbsent(resource.trim().toLowerCase(Locale.ROOT), key -> new Bucket());
+    }
+
+    private boolean isRateLimited(int status, HttpHeaders headers) {
+        return isThrottleStatus(status)
+                && (headers.containsKey(HttpHeaders.RETRY_AFTER) || "0".equals(headers.getFirst(REMAINING)));
+    }
+
+    private static boolean isThrottleStatus(int status) {
+        return status == HttpStatus.FORBIDDEN.value() || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * The budget of one GitHub rate-limit resource.
+     */
+    static final class Bucket {
+
+        private volatile long remaining = -1;
+        private volatile long limit = -1;
+        private volatile Instant resetAt = Instant.EPOCH;
+        private volatile Instant blockedUntil = Instant.EPOCH;
+
+        private boolean isExhausted(Instant now) {
+            return (remaining == 0 && now.isBefore(resetAt)) || now.isBefore(blockedUntil);
+        }
+
+        private Duration retryAfter(Instant now) {
+            Instant until = resetAt.isAfter(blockedUntil) ? resetAt : blockedUntil;
+            Duration wait = Duration.between(now, until);
+            return wait.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : wait;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.CircuitOpenException;
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.api.GithubReposPage;
+import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.dto.RepoDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link GithubClient}. Failures surface as the same exception
+ * types, so the service fallback and {@code GlobalExceptionHandler} treat both clients alike.
+ * Calls go through the endpoint circuit breakers but are not retried.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ReactiveGithubClient {
+
+    private final WebClient githubWebClient;
+    private final GithubResilience resilience;
+
+    @Value("${github.user-path}")
+    private String userPath;
+
+    @Value("${github.repos-path}")
+    private String reposPath;
+
+    @Value("${github.repos-per-page}")
+    private int reposPerPage;
+
+    @Value("${github.repos-max-concurrent-pages}")
+    private int maxConcurrentPages;
+
+    public Mono<GithubUserResponse> getUser(String username) {
+        Mono<GithubUserResponse> call = githubWebClient.get()
+                .uri(userPath, username)
+                .retrieve()
+                .bodyToMono(GithubUserResponse.class)
+                .onErrorMap(WebClientResponseException.NotFound.class, ex -> new UsernameNotFoundException(username));
+
+        return guarded(GithubResilience.USER_ENDPOINT, call)
+                .doOnSubscribe(subscription -> log.info("Calling GitHub API for user '{}' (reactive)", username))
+                .doOnError(RestClientException.class, ex -> log.error("Error calling GitHub for user '{}'", username, ex));
+    }
+
+    /**
+     * Fetches every page of the user's repos, at most {@code maxConcurrentPages} at a time,
+     * keeping GitHub's order.
+     */
+    public Mono<List<RepoDto>> getRepos(String username) {
+        return getReposPage(username, 1)
+                .flatMap(firstPage -> {
+                    List<RepoDto> repos = new ArrayList<>(GithubClient.toList(firstPage.getBody()));
+                    int lastPage = GithubClient.lastPage(firstPage.getHeaders());
+                    if (lastPage == 1) {
+                        return Mono.just(repos);
+                    }
+
+                    log.debug("GitHub repos of '{}' span {} pages", username, lastPage);
+                    return Flux.range(2, lastPage - 1)
+                            .flatMapSequential(page -> getReposPage(username, page), maxConcurrentPages)
+                            .reduce(repos, (all, page) -> {
+                                all.addAll(GithubClient.toList(page.getBody()));
+                                return all;
+                            });
+                })
+                .doOnSubscribe(subscription -> log.info("Calling GitHub API for repos of '{}' (reactive)", username))
+                .doOnError(RestClientException.class, ex -> log.error("Error calling GitHub for repos of '{}'", username, ex));
+    }
+
+    private Mono<ResponseEntity<GithubReposPage>> getReposPage(String username, int page) {
+        return guarded(GithubResilience.REPOS_ENDPOINT, githubWebClient.get()
+                .uri(reposPath + "?per_page={perPage}&page={page}", username, reposPerPage, page)
+                .retrieve()
+                .toEntity(GithubReposPage.class));
+    }
+
+    private <T> Mono<T> guarded(String endpoint, Mono<T> call) {
+        CircuitBreaker breaker = resilience.breaker(endpoint);
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquirePermission()) {
+                return Mono.error(new CircuitOpenException(endpoint));
+            }
+            return call
+                    .doOnSuccess(result -> breaker.onSuccess())
+                    .doOnCancel(breaker::release)
+                    .doOnError(ex -> {
+                        if (GithubResilience.isLocal(ex)) {
+                            breaker.release();
+                        } else if (isUpstreamFailure(ex)) {
+                            breaker.onFailure();
+                        } else {
+                            // the upstream answered, so it is healthy from the breaker's point of view
+                            breaker.onSuccess();
+                        }
+                    })
+                    .onErrorMap(WebClientException.class, ReactiveGithubClient::toRestClientException);
+        });
+    }
+
+    private static boolean isUpstreamFailure(Throwable ex) {
+        return ex instanceof WebClientRequestException
+                || (ex instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError());
+    }
+
+    private static RestClientException toRestClientException(WebClientException ex) {
+        if (ex instanceof WebClientRequestException) {
+            ResourceAccessException wrapped = new ResourceAccessException(ex.getMessage());
+            wrapped.initCause(ex);
+            return wrapped;
+        }
+        return new RestClientException(ex.getMessage(), ex);
+    }
+}
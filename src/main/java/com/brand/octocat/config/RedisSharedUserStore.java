@@ -0,0 +1,193 @@
+package com.brand.octocat.config;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Redis backend for the shared users cache. Values are stored under {@code octocat:users:}
+ * with a TTL, and invalidations travel over a pub/sub channel on a dedicated connection.
+ * Leases are {@code SET NX PX} keys under {@code octocat:users-lease:} holding this node's id,
+ * which a release must match so a node never drops a lease another node took after its own ran out.
+ * <p>
+ * Redis being down never blocks startup or requests: the first connection is made in the
+ * background and retried every {@code reconnect-interval}, and until it succeeds every command
+ * fails at once. Once connected, Lettuce reconnects by itself and rejects commands while
+ * disconnected instead of queueing them, and each command is bounded by {@code timeout}.
+ * Invalidations sent while a node is cut off are lost to it, so its near-cache can lag for up
+ * to the near-cache TTL.
+ */
+@Slf4j
+public class RedisSharedUserStore implements SharedUserStore {
+
+    private static final String KEY_PREFIX = "octocat:users:";
+    private static final String CHANNEL = "octocat:users:invalidations";
+    private static final String LEASE_PREFIX = "octocat:users-lease:";
+    private static final String RELEASE_LEASE =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private static final int SCAN_BATCH = 500;
+
+    private final RedisClient client;
+    private final Duration reconnectInterval;
+    private final ScheduledExecutorService reconnector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "redis-connect");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final byte[] nodeId = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+    private volatile StatefulRedisConnection<String, byte[]> connection;
+    private volatile StatefulRedisPubSubConnection<String, String> pubSub;
+    private volatile boolean closed;
+
+    public RedisSharedUserStore(String uri, Duration timeout, Duration connectTimeout, Duration reconnectInterval) {
+        RedisURI redisUri = RedisURI.create(uri);
+        redisUri.setTimeout(timeout);
+        this.client = RedisClient.create(redisUri);
+        this.client.setOptions(ClientOptions.builder()
+                .autoReconnect(true)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .timeoutOptions(TimeoutOptions.enabled(timeout))
+                .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).build())
+                .build());
+        this.reconnectInterval = reconnectInterval;
+        reconnector.execute(this::connect);
+    }
+
+    boolean isConnected() {
+        return connection != null && pubSub != null;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return commands().get(KEY_PREFIX + key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        commands().set(KEY_PREFIX + key, value, SetArgs.Builder.px(ttl.toMillis()));
+    }
+
+    @Override
+    public void evict(String key) {
+        commands().del(KEY_PREFIX + key);
+    }
+
+    @Override
+    public void clear() {
+        RedisCommands<String, byte[]> commands = commands();
+        ScanArgs matchUsers = ScanArgs.Builder.matches(KEY_PREFIX + "*").limit(SCAN_BATCH);
+        KeyScanCursor<String> cursor = commands.scan(matchUsers);
+        while (true) {
+            if (!cursor.getKeys().isEmpty()) {
+                commands.del(cursor.getKeys().toArray(String[]::new));
+            }
+            if (cursor.isFinished()) {
+                return;
+            }
+            cursor = commands.scan(ScanCursor.of(cursor.getCursor()), matchUsers);
+        }
+    }
+
+    @Override
+    public void publish(String message) {
+        commands().publish(CHANNEL, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Listeners registered before the pub/sub connection exists start receiving once it is up.
+     */
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean tryLease(String key, Duration lease) {
+        return "OK".equals(commands().set(LEASE_PREFIX + key, nodeId,
+                SetArgs.Builder.nx().px(lease.toMillis())));
+    }
+
+    @Override
+    public void releaseLease(String key) {
+        commands().eval(RELEASE_LEASE, ScriptOutputType.INTEGER, new String[] {LEASE_PREFIX + key}, nodeId);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        reconnector.shutdownNow();
+        if (pubSub != null) {
+            pubSub.close();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+        client.shutdown();
+    }
+
+    private RedisCommands<String, byte[]> commands() {
+        StatefulRedisConnection<String, byte[]> current = connection;
+        if (current == null) {
+            throw new RedisConnectionException("Shared users cache is not connected to Redis yet");
+        }
+        return current.sync();
+    }
+
+    private void connect() {
+        if (closed) {
+            return;
+        }
+        try {
+            if (pubSub == null) {
+                StatefulRedisPubSubConnection<String, String> subscriber = client.connectPubSub(StringCodec.UTF8);
+                subscriber.addListener(new RedisPubSubAdapter<>() {
+                    @Override
+                    public void message(String channel, String message) {
+                        listeners.forEach(listener -> listener.accept(message));
+                    }
+                });
+                subscriber.sync().subscribe(CHANNEL);
+                pubSub = subscriber;
+            }
+            if (connection == null) {
+                connection = client.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+            }
+            log.info("Shared users cache connected to Redis");
+
+        } catch (RuntimeException ex) {
+            log.warn("Redis unavailable, shared users cache runs on near-caches only; retrying in {}: {}",
+                    reconnectInterval, ex.getMessage());
+            if (!closed) {
+                reconnector.schedule(this::connect, reconnectInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.brand.octocat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Records the size of each GitHub response body per endpoint, counted as the body is read,
+ * so paged repos listings are measured without buffering them. Sizes are after transport
+ * decompression, i.e. what the JSON parser has to get through.
+ */
+@Component
+public class ResponseSizeInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private DistributionSummary userSizes;
+    private DistributionSummary reposSizes;
+    private DistributionSummary graphqlSizes;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ClientHttpResponse response = execution.execute(request, body);
+        DistributionSummary sizes = sizesFor(request.getURI().getPath());
+        return sizes == null ? response : new CountingResponse(response, sizes);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        userSizes = summary(GithubResilience.USER_ENDPOINT, registry);
+        reposSizes = summary(GithubResilience.REPOS_ENDPOINT, registry);
+        graphqlSizes = summary(GithubResilience.GRAPHQL_ENDPOINT, registry);
+    }
+
+    private DistributionSummary sizesFor(String path) {
+        if (path.endsWith("/repos")) {
+            return reposSizes;
+        }
+        return path.endsWith("/graphql") ? graphqlSizes : userSizes;
+    }
+
+    private static DistributionSummary summary(String endpoint, MeterRegistry registry) {
+        return DistributionSummary.builder("github.client.response.size")
+                .description("Size of GitHub response bodies")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(registry);
+    }
+
+    private static final class CountingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final DistributionSummary sizes;
+        private CountingInputStream body;
+
+        private CountingResponse(ClientHttpResponse delegate, DistributionSummary sizes) {
+            this.delegate = delegate;
+            this.sizes = sizes;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            sizes.record(body == null ? 0 : body.count);
+            delegate.close();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        /**
+         * Without mark/reset a peeked byte is pushed back by the reader instead of read
+         * twice, so it is counted once.
+         */
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
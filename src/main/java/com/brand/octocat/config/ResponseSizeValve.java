@@ -0,0 +1,55 @@
+package com.brand.octocat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import org.apache.catalina.AccessLog;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the number of bytes sent for each response, tagged with the matched route rather
+ * than the raw path so usernames never become tag values. Tomcat reports completed requests
+ * to access log valves, which covers streamed and async responses as well.
+ */
+class ResponseSizeValve extends ValveBase implements AccessLog {
+
+    static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry registry;
+
+    ResponseSizeValve(MeterRegistry registry) {
+        super(true);
+        this.registry = registry;
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        getNext().invoke(request, response);
+    }
+
+    @Override
+    public void log(Request request, Response response, long time) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.response.size")
+                .description("Size of response bodies sent to clients")
+                .baseUnit("bytes")
+                .tag("uri", pattern == null ? UNKNOWN_URI : pattern.toString())
+                .tag("status", String.valueOf(response.getStatus()))
+                .register(registry)
+                .record(response.getBytesWritten(false));
+    }
+
+    @Override
+    public void setRequestAttributesEnabled(boolean requestAttributesEnabled) {
+    }
+
+    @Override
+    public boolean getRequestAttributesEnabled() {
+        return false;
+    }
+}
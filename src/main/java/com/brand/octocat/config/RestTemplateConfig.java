@@ -4,23 +4,39 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * The REST client for GitHub. With {@code github.token} set, every call is authenticated, which
+ * raises GitHub's budget from 60 calls per hour and address to that of the token.
+ */
 @Configuration
 public class RestTemplateConfig {
 
     @Value("${github.base-url}")
     private final String baseUrl;
 
-    public RestTemplateConfig(@Value("${github.base-url}") String baseUrl) {
+    private final String token;
+
+    public RestTemplateConfig(@Value("${github.base-url}") String baseUrl, @Value("${github.token}") String token) {
         this.baseUrl = baseUrl;
+        this.token = token;
     }
 
     @Bean
-    public RestTemplate githubRestTemplate(RestTemplateBuilder builder) {
-        return builder
+    public RestTemplate githubRestTemplate(RestTemplateBuilder builder, ClientHttpRequestFactory githubRequestFactory,
+                                           RateLimitGovernor rateLimitGovernor,
+                                           ResponseSizeInterceptor responseSizeInterceptor) {
+        RestTemplateBuilder configured = builder
                 .rootUri(baseUrl)
-                .build();
+                .requestFactory(() -> githubRequestFactory)
+                .additionalInterceptors(rateLimitGovernor, responseSizeInterceptor);
+        if (StringUtils.hasText(token)) {
+            configured = configured.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return configured.build();
     }
 }
-
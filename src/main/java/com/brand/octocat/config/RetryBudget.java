@@ -0,0 +1,42 @@
+package com.brand.octocat.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries to a fraction of regular traffic. Each request deposits
+ * {@code ratio} of a token and each retry withdraws a whole one, so during an incident
+ * retries add at most {@code ratio} extra load on top of the {@code minTokens} burst.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int minTokens) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = minTokens * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void recordRequest() {
+        balance.getAndUpdate(current -> Math.min(maxBalance, current + deposit));
+    }
+
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double getAvailableRetries() {
+        return (double) balance.get() / SCALE;
+    }
+}
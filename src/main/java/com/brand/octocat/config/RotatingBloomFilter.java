@@ -0,0 +1,141 @@
+package com.brand.octocat.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter that forgets. Keys go into the current generation and are looked up in the
+ * current and previous one; every half {@code ttl}, or as soon as the current generation
+ * holds {@code capacity} keys, the previous generation is dropped. A key is therefore
+ * remembered for at most {@code ttl}, and memory stays fixed at two bit arrays sized for
+ * {@code capacity} keys at the given false-positive rate, however many keys arrive.
+ */
+class RotatingBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final int capacity;
+    private final Duration rotateEvery;
+    private final Clock clock;
+
+    private volatile Generations generations;
+
+    RotatingBloomFilter(int capacity, double falsePositiveRate, Duration ttl, Clock clock) {
+        this.bits = (int) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        this.capacity = capacity;
+        this.rotateEvery = ttl.dividedBy(2);
+        this.clock = clock;
+        this.generations = new Generations(new Generation(bits), new Generation(bits), clock.instant());
+    }
+
+    boolean mightContain(String key) {
+        Generations current = rotateIfDue();
+        long hash = hash(key);
+        return current.current().mightContain(hash) || current.previous().mightContain(hash);
+    }
+
+    void put(String key) {
+        Generations current = rotateIfDue();
+        if (current.current().put(hash(key)) && current.current().count() >= capacity) {
+            rotate(current);
+        }
+    }
+
+    /**
+     * Keys added to both generations, counting each at most once per generation.
+     */
+    long entries() {
+        Generations current = generations;
+        return (long) current.current().count() + current.previous().count();
+    }
+
+    private Generations rotateIfDue() {
+        Generations current = generations;
+        if (!clock.instant().isBefore(current.rotatedAt().plus(rotateEvery))) {
+            return rotate(current);
+        }
+        return current;
+    }
+
+    private synchronized Generations rotate(Generations expected) {
+        if (generations != expected) {
+            return generations;
+        }
+        generations = new Generations(new Generation(bits), expected.current(), clock.instant());
+        return generations;
+    }
+
+    private boolean isSet(AtomicLongArray words, long bit) {
+        return (words.get((int) (bit >>> 6)) & (1L << bit)) != 0;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the SplitMix64 mixer so both halves
+     * of the result are usable as independent hashes.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private record Generations(Generation current, Generation previous, Instant rotatedAt) {
+    }
+
+    private final class Generation {
+
+        private final AtomicLongArray words;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private boolean mightContain(long hash) {
+            for (int i = 0; i < hashes; i++) {
+                if (!isSet(words, index(hash, i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether the key was new to this generation.
+         */
+        private boolean put(long hash) {
+            boolean added = false;
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long previous = words.getAndAccumulate(word, mask, (value, m) -> value | m);
+                added |= (previous & mask) == 0;
+            }
+            if (added) {
+                count.incrementAndGet();
+            }
+            return added;
+        }
+
+        private int count() {
+            return count.get();
+        }
+
+        // Kirsch-Mitzenmacher: the i-th index is h1 + i * h2, with h2 odd so the indexes differ
+        private long index(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return Integer.toUnsignedLong(h1 + i * h2) % bits;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.brand.octocat.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Server-side metrics that the auto-configured {@code http.server.requests} observation does
+ * not cover.
+ */
+@Configuration
+public class ServerMetricsConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> responseSizeCustomizer(MeterRegistry registry) {
+        return factory -> factory.addContextValves(new ResponseSizeValve(registry));
+    }
+}
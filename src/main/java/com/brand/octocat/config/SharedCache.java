@@ -0,0 +1,157 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.cache.CachedUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * The users cache as a small per-node near-cache in front of a {@link SharedUserStore} that
+ * all replicas read and write, so a user fetched by one replica is served by all of them.
+ * A near-cache miss reads the shared store and keeps the entry locally; every write or
+ * eviction is broadcast so other replicas drop their near copy and re-read the new value.
+ * <p>
+ * Failures of the shared store are logged and treated as misses, leaving the node to run
+ * on its near-cache alone.
+ */
+@Slf4j
+public class SharedCache implements Cache {
+
+    private static final char SEPARATOR = '\n';
+
+    private final Cache near;
+    private final SharedUserStore store;
+    private final Duration ttl;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SharedCache(Cache near, SharedUserStore store, Duration ttl) {
+        this.near = near;
+        this.store = store;
+        this.ttl = ttl;
+        store.subscribe(this::onInvalidation);
+    }
+
+    public Cache getNearCache() {
+        return near;
+    }
+
+    @Override
+    public String getName() {
+        return near.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return near.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = near.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CachedUser shared = readShared(key.toString());
+        if (shared == null) {
+            return null;
+        }
+        near.put(key, shared);
+        return new SimpleValueWrapper(shared);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value = near.get(key, valueLoader);
+        writeShared(key.toString(), value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        near.put(key, value);
+        writeShared(key.toString(), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        near.evict(key);
+        try {
+            store.evict(key.toString());
+            store.publish(nodeId + SEPARATOR + key);
+        } catch (RuntimeException ex) {
+            log.warn("Shared users cache unavailable, could not evict '{}'", key, ex);
+        }
+    }
+
+    @Override
+    public void clear() {
+        near.clear();
+        try {
+            store.clear();
+            store.publish(nodeId);
+        } catch (RuntimeException ex) {
+            log.warn("Shared users cache unavailable, could not clear it", ex);
+        }
+    }
+
+    private CachedUser readShared(String key) {
+        try {
+            byte[] value = store.get(key);
+            return value == null ? null : CachedUserCodec.decode(value);
+        } catch (RuntimeException ex) {
+            log.warn("Shared users cache unavailable, treating '{}' as a miss", key, ex);
+            return null;
+        }
+    }
+
+    private void writeShared(String key, Object value) {
+        if (!(value instanceof CachedUser user)) {
+            return;
+        }
+        try {
+            store.put(key, CachedUserCodec.encode(user), ttl);
+            store.publish(nodeId + SEPARATOR + key);
+        } catch (RuntimeException ex) {
+            log.warn("Shared users cache unavailable, '{}' is cached on this node only", key, ex);
+        }
+    }
+
+    /**
+     * Messages are the sender's node id, followed by the key unless the whole cache was
+     * cleared. A node ignores its own messages.
+     */
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        String sender = separator < 0 ? message : message.substring(0, separator);
+        if (nodeId.equals(sender)) {
+            return;
+        }
+        if (separator < 0) {
+            near.clear();
+        } else {
+            near.evict(message.substring(separator + 1));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.brand.octocat.config;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Key-value backend shared by all replicas behind the {@code users} cache, plus a broadcast
+ * channel that tells every replica which near-cache entries to drop, and leases that let one
+ * replica at a time fetch a user from GitHub.
+ */
+public interface SharedUserStore extends AutoCloseable {
+
+    byte[] get(String key);
+
+    void put(String key, byte[] value, Duration ttl);
+
+    void evict(String key);
+
+    void clear();
+
+    /**
+     * Sends a message to every subscriber, including those of the sending replica.
+     */
+    void publish(String message);
+
+    void subscribe(Consumer<String> listener);
+
+    /**
+     * Takes the lease on the key for at most {@code lease}; false while another replica holds it.
+     */
+    boolean tryLease(String key, Duration lease);
+
+    /**
+     * Gives up a lease this replica holds; a lease that already ran out is left alone.
+     */
+    void releaseLease(String key);
+
+    @Override
+    default void close() {
+    }
+}
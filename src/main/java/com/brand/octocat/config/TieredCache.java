@@ -0,0 +1,104 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.cache.CachedUser;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * The users cache as a small in-memory tier in front of the {@link DiskUserStore}. A memory
+ * miss falls through to disk and promotes the entry; writes and evictions reach both tiers.
+ * <p>
+ * When the memory tier is a {@link SharedCache}, a disk hit is promoted into its near-cache
+ * only: the entry is this node's own copy, so it is neither written to the shared store nor
+ * broadcast to the other replicas.
+ */
+public class TieredCache implements Cache {
+
+    private final Cache memory;
+    private final Cache promotionTier;
+    private final DiskUserStore disk;
+
+    public TieredCache(Cache memory, DiskUserStore disk) {
+        this.memory = memory;
+        this.promotionTier = memory instanceof SharedCache shared ? shared.getNearCache() : memory;
+        this.disk = disk;
+    }
+
+    public Cache getMemoryTier() {
+        return memory;
+    }
+
+    @Override
+    public String getName() {
+        return memory.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return memory.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = memory.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<CachedUser> stored = disk.get(key.toString());
+        if (stored.isEmpty()) {
+            return null;
+        }
+        promotionTier.put(key, stored.get());
+        return new SimpleValueWrapper(stored.get());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value = memory.get(key, valueLoader);
+        if (value instanceof CachedUser user) {
+            disk.put(key.toString(), user);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        memory.put(key, value);
+        if (value instanceof CachedUser user) {
+            disk.put(key.toString(), user);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        memory.evict(key);
+        disk.evict(key.toString());
+    }
+
+    @Override
+    public void clear() {
+        memory.clear();
+        disk.clear();
+    }
+}
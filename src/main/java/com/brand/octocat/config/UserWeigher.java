@@ -0,0 +1,73 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * Rough retained-heap estimate of a cached {@link CachedUser}, in bytes. It only needs to be
+ * proportional to the real footprint so that accounts with thousands of repos weigh more
+ * than accounts with none.
+ */
+public final class UserWeigher {
+
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING_OVERHEAD = 40;
+
+    private UserWeigher() {
+    }
+
+    public static int weigh(Object key, Object value) {
+        long weight = sizeOf(key);
+        if (value instanceof CachedUser cached) {
+            weight += sizeOf(cached);
+        } else if (value instanceof UserDto user) {
+            weight += sizeOf(user);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, weight));
+    }
+
+    static long sizeOf(CachedUser cached) {
+        long size = OBJECT_OVERHEAD + 4L * REFERENCE + OBJECT_OVERHEAD + Long.BYTES;
+        if (cached.user() != null) {
+            size += sizeOf(cached.user());
+        }
+        size += sizeOf(cached.userValidators()) + sizeOf(cached.reposValidators());
+        return size;
+    }
+
+    static long sizeOf(UserDto user) {
+        long size = OBJECT_OVERHEAD + 8L * REFERENCE
+                + sizeOf(user.userName())
+                + sizeOf(user.displayName())
+                + sizeOf(user.avatar())
+                + sizeOf(user.geoLocation())
+                + sizeOf(user.email())
+                + sizeOf(user.url())
+                + sizeOf(user.createdAt());
+
+        if (user.repos() != null) {
+            size += OBJECT_OVERHEAD + (long) user.repos().size() * REFERENCE;
+            for (RepoDto repo : user.repos()) {
+                size += OBJECT_OVERHEAD + 2L * REFERENCE + sizeOf(repo.name()) + sizeOf(repo.url());
+            }
+        }
+        return size;
+    }
+
+    private static long sizeOf(List<Validator> validators) {
+        long size = OBJECT_OVERHEAD + (long) validators.size() * REFERENCE;
+        for (Validator validator : validators) {
+            size += OBJECT_OVERHEAD + 2L * REFERENCE + sizeOf(validator.etag()) + sizeOf(validator.lastModified());
+        }
+        return size;
+    }
+
+    private static long sizeOf(Object value) {
+        return value instanceof String string ? STRING_OVERHEAD + string.length() : 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.brand.octocat.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking client for the reactive execution path, sharing the pool limits and timeouts
+ * of the blocking transport, and authenticated with the same {@code github.token}.
+ */
+@Configuration
+public class WebClientConfig {
+
+    private final String baseUrl;
+    private final int maxConnections;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration poolAcquireTimeout;
+    private final Duration idleTimeout;
+    private final Duration connectionTtl;
+    private final String token;
+
+    public WebClientConfig(@Value("${github.base-url}") String baseUrl,
+                           @Value("${github.http.max-connections}") int maxConnections,
+                           @Value("${github.http.connect-timeout}") Duration connectTimeout,
+                           @Value("${github.http.read-timeout}") Duration readTimeout,
+                           @Value("${github.http.pool-acquire-timeout}") Duration poolAcquireTimeout,
+                           @Value("${github.http.idle-timeout}") Duration idleTimeout,
+                           @Value("${github.http.connection-ttl}") Duration connectionTtl,
+                           @Value("${github.token}") String token) {
+        this.baseUrl = baseUrl;
+        this.maxConnections = maxConnections;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.poolAcquireTimeout = poolAcquireTimeout;
+        this.idleTimeout = idleTimeout;
+        this.connectionTtl = connectionTtl;
+        this.token = token;
+    }
+
+    @Bean
+    public WebClient githubWebClient(WebClient.Builder builder, RateLimitGovernor rateLimitGovernor) {
+        ConnectionProvider pool = ConnectionProvider.builder("github")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(poolAcquireTimeout)
+                .maxIdleTime(idleTimeout)
+                .maxLifeTime(connectionTtl)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+
+        builder = builder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(rateLimitGovernor.exchangeFilter());
+        if (StringUtils.hasText(token)) {
+            builder = builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.brand.octocat.controller;
+
+import com.brand.octocat.error.RateLimitExceededException;
+import com.brand.octocat.model.dto.BatchUserDto;
+import com.brand.octocat.model.dto.BatchUserRequest;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.brand.octocat.service.GithubBatchService;
+import com.brand.octocat.service.GithubService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Batch lookups and NDJSON streaming, available in both the blocking and the reactive mode.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/github")
+@RequiredArgsConstructor
+public class GithubBulkController {
+
+    private final GithubService service;
+    private final GithubBatchService batchService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping("/users")
+    public ResponseEntity<List<BatchUserDto>> getUsers(@RequestBody BatchUserRequest request) {
+        log.info("Incoming batch request for {} GitHub users", request.usernames() == null ? 0 : request.usernames().size());
+        return ResponseEntity.ok(batchService.getUsers(request.usernames()));
+    }
+
+    /**
+     * NDJSON variant of {@link GithubController#getUser}: the profile line first, then one line
+     * per repo, flushed page by page. The profile is resolved before streaming starts, so errors
+     * such as an unknown user still map to a regular error response. A GitHub error after that
+     * can no longer change the status, so it ends the stream with an error line shaped like a
+     * failed batch result.
+     */
+    @GetMapping(value = "/{username}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUser(@PathVariable String username) {
+        GithubController.validate(username);
+
+        log.info("Incoming streaming request for GitHub user '{}'", username);
+        UserDto profile = service.getProfile(username);
+
+        StreamingResponseBody body = out -> {
+            writeLine(out, profile);
+            out.flush();
+            try {
+                service.forEachReposPage(username, page -> {
+                    try {
+                        for (RepoDto repo : page) {
+                            writeLine(out, repo);
+                        }
+                        out.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (RestClientException ex) {
+                log.error("GitHub API error while streaming repos of '{}'", username, ex);
+                HttpStatus status = ex instanceof RateLimitExceededException
+                        ? HttpStatus.TOO_MANY_REQUESTS
+                        : HttpStatus.SERVICE_UNAVAILABLE;
+                writeLine(out, BatchUserDto.failed(username, status, ex.getMessage()));
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * NDJSON variant of {@link #getUsers}: one line per user, written in completion order.
+     */
+    @PostMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestBody BatchUserRequest request) {
+        log.info("Incoming streaming batch request for {} GitHub users", request.usernames() == null ? 0 : request.usernames().size());
+        Stream<BatchUserDto> results = batchService.streamUsers(request.usernames());
+
+        StreamingResponseBody body = out -> {
+            Iterator<BatchUserDto> iterator = results.iterator();
+            while (iterator.hasNext()) {
+                writeLine(out, iterator.next());
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
@@ -1,34 +1,278 @@
 package com.brand.octocat.controller;
 
+import com.brand.octocat.config.EncodedUserCache;
+import com.brand.octocat.config.EncodedUserCache.EncodedUser;
+import com.brand.octocat.mapper.GithubMapper;
+import com.brand.octocat.model.dto.RepoDto;
 import com.brand.octocat.model.dto.UserDto;
 import com.brand.octocat.service.GithubService;
+import com.brand.octocat.service.UserResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/github")
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "github.reactive.enabled", havingValue = "false", matchIfMissing = true)
 public class GithubController {
 
+    static final String STALE_WARNING = "111 - \"Revalidation Failed\"";
+
+    static final String REPOS_FIELD = "repos";
+    static final Set<String> FIELDS = Set.of("user_name", "display_name", "avatar", "geo_location", "email", "url",
+            "created_at", REPOS_FIELD);
+
     private final GithubService service;
+    private final EncodedUserCache encodedUsers;
+    private final GithubMapper mapper;
+
+    @Value("${github.cache.users.ttl}")
+    private Duration ttl;
 
+    @Value("${github.api.repos-max-limit}")
+    private int reposMaxLimit;
+
+    /**
+     * Writes the user's pre-encoded JSON, or its gzip variant when the client accepts gzip,
+     * so repeated reads of a cached user skip serialisation. The ETag comes from the content
+     * hash stored with the user, so a matching {@code If-None-Match} is answered with 304
+     * before the body is looked up or encoded.
+     * <p>
+     * {@code fields} selects the JSON fields to return; without {@code repos} among them, the
+     * repos are not fetched at all. {@code limit} and {@code cursor} page through the repos,
+     * with the next page linked from a {@code Link: rel="next"} header.
+     */
     @GetMapping("/{username}")
-    public ResponseEntity<UserDto> getUser(@PathVariable String username) {
+    public ResponseEntity<byte[]> getUser(@PathVariable String username,
+                                          @RequestParam(required = false) String fields,
+                                          @RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                          String acceptEncoding,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                          String ifNoneMatch) {
+        validate(username);
+
+        log.info("Incoming request for GitHub user '{}'", username);
+        if (fields != null || limit != null || cursor != null) {
+            return getProjectedUser(username, parseFields(fields), limit, cursor);
+        }
+
+        UserResult result = service.lookupUser(username);
+        return encodedResponse(result, ttl, encodedUsers, acceptsGzip(acceptEncoding), ifNoneMatch);
+    }
+
+    /**
+     * The full user as stored bytes: a 304 when {@code If-None-Match} names the stored content
+     * hash, otherwise the pre-encoded JSON or its gzip variant.
+     */
+    static ResponseEntity<byte[]> encodedResponse(UserResult result, Duration ttl, EncodedUserCache encodedUsers,
+                                                  boolean gzip, String ifNoneMatch) {
+        String notModified = notModifiedETag(result.contentHash(), ifNoneMatch, gzip);
+        if (notModified != null) {
+            return headersFor(ResponseEntity.status(HttpStatus.NOT_MODIFIED), result, ttl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(notModified)
+                    .build();
+        }
+
+        EncodedUser encoded = encodedUsers.get(result.user(), result.contentHash());
+        ResponseEntity.BodyBuilder response = responseFor(result, ttl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (encoded.gzip() != null && gzip) {
+            return response.eTag(encoded.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(encoded.gzip());
+        }
+        return response.eTag(encoded.etag()).body(encoded.json());
+    }
+
+    private ResponseEntity<byte[]> getProjectedUser(String username, Set<String> fields, Integer limit,
+                                                    String cursor) {
+        boolean withRepos = fields.contains(REPOS_FIELD);
+        boolean paged = withRepos && (limit != null || cursor != null);
+        int pageSize = paged ? pageSize(limit) : 0;
+        int offset = paged ? decodeCursor(cursor) : 0;
+
+        UserResult result = withRepos ? service.lookupUser(username) : service.lookupProfile(username);
+        ResponseEntity.BodyBuilder response = responseFor(result, ttl).contentType(MediaType.APPLICATION_JSON);
 
+        UserDto user = result.user();
+        if (paged) {
+            List<RepoDto> repos = user.repos();
+            int from = Math.min(offset, repos.size());
+            int to = Math.min(from + pageSize, repos.size());
+            user = mapper.withRepos(user, repos.subList(from, to));
+            if (to < repos.size()) {
+                String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .replaceQueryParam("cursor", encodeCursor(to))
+                        .replaceQueryParam("limit", pageSize)
+                        .toUriString();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+        }
+
+        EncodedUser encoded = encodedUsers.encode(user, fields);
+        return response.eTag(encoded.etag()).body(encoded.json());
+    }
+
+    static void validate(String username) {
         if (StringUtils.isBlank(username)) {
             log.error("Request received with empty username");
             throw new IllegalArgumentException("Username must not be empty");
         }
+    }
 
-        log.info("Incoming request for GitHub user '{}'", username);
-        UserDto userDto = service.getUser(username);
-        return ResponseEntity.ok(userDto);
+    /**
+     * Starts a 200 for the user. Clients may reuse a fresh user until the cache would refetch
+     * it; a stale one is marked as such and must be revalidated.
+     */
+    static ResponseEntity.BodyBuilder responseFor(UserResult result, Duration ttl) {
+        return headersFor(ResponseEntity.ok(), result, ttl);
+    }
+
+    private static ResponseEntity.BodyBuilder headersFor(ResponseEntity.BodyBuilder response, UserResult result,
+                                                         Duration ttl) {
+        if (result.lastModified() != null) {
+            response.lastModified(result.lastModified());
+        }
+        if (result.stale()) {
+            return response
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.AGE, String.valueOf(result.age().toSeconds()))
+                    .header(HttpHeaders.WARNING, STALE_WARNING);
+        }
+        Duration freshFor = ttl.minus(result.age());
+        return response.cacheControl(freshFor.isNegative() ? CacheControl.noCache() : CacheControl.maxAge(freshFor));
+    }
+
+    /**
+     * The ETag of the variant the client already holds, when {@code If-None-Match} names the
+     * plain or, for a client accepting gzip, the gzip ETag of the stored content hash.
+     */
+    static String notModifiedETag(String contentHash, String ifNoneMatch, boolean acceptsGzip) {
+        if (contentHash == null || ifNoneMatch == null) {
+            return null;
+        }
+        String etag = EncodedUserCache.etag(contentHash);
+        String gzipEtag = EncodedUserCache.gzipEtag(contentHash);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses the weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return etag;
+            }
+            if (acceptsGzip && tag.equals(gzipEtag)) {
+                return gzipEtag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a comma-separated list of field names; absent means all fields.
+     */
+    static Set<String> parseFields(String fields) {
+        if (fields == null) {
+            return FIELDS;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected any of "
+                        + FIELDS.stream().sorted().toList());
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return reposMaxLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, reposMaxLimit);
+    }
+
+    /**
+     * Cursors are opaque to clients; they encode the offset of the next repo.
+     */
+    static String encodeCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int decodeCursor(String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset >= 0) {
+                return offset;
+            }
+        } catch (IllegalArgumentException ex) {
+            // not Base64 or not a number, reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor '" + cursor + "'");
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return !hasZeroQuality(parts);
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException ex) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
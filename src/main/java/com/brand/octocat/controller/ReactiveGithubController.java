@@ -0,0 +1,61 @@
+package com.brand.octocat.controller;
+
+import com.brand.octocat.config.EncodedUserCache;
+import com.brand.octocat.service.ReactiveGithubService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Replaces {@link GithubController} when {@code github.reactive.enabled} is set: the servlet
+ * thread is released as soon as the lookup starts and the response is written on completion.
+ * The full user is served the same way, pre-encoded with its ETag, 304 and gzip variant; the
+ * {@code fields}, {@code limit} and {@code cursor} parameters are not supported and answered
+ * with 400 rather than ignored.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/github")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "github.reactive.enabled", havingValue = "true")
+public class ReactiveGithubController {
+
+    private final ReactiveGithubService service;
+    private final EncodedUserCache encodedUsers;
+
+    @Value("${github.cache.users.ttl}")
+    private Duration ttl;
+
+    @GetMapping("/{username}")
+    public Mono<ResponseEntity<byte[]>> getUser(@PathVariable String username,
+                                                @RequestParam(required = false) String fields,
+                                                @RequestParam(required = false) String limit,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                String acceptEncoding,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
+        GithubController.validate(username);
+        if (fields != null || limit != null || cursor != null) {
+            throw new IllegalArgumentException(
+                    "fields, limit and cursor are not supported when github.reactive.enabled is set");
+        }
+
+        log.info("Incoming reactive request for GitHub user '{}'", username);
+        boolean gzip = GithubController.acceptsGzip(acceptEncoding);
+        return service.lookupUser(username).map(result ->
+                GithubController.encodedResponse(result, ttl, encodedUsers, gzip, ifNoneMatch));
+    }
+}
@@ -0,0 +1,15 @@
+package com.brand.octocat.error;
+
+import lombok.Getter;
+import org.springframework.web.client.RestClientException;
+
+@Getter
+public class CircuitOpenException extends RestClientException {
+
+    private final String endpoint;
+
+    public CircuitOpenException(String endpoint) {
+        super("GitHub " + endpoint + " endpoint unavailable, circuit breaker is open");
+        this.endpoint = endpoint;
+    }
+}
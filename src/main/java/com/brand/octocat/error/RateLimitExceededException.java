@@ -0,0 +1,17 @@
+package com.brand.octocat.error;
+
+import lombok.Getter;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+
+@Getter
+public class RateLimitExceededException extends RestClientException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("GitHub rate limit exhausted, retry after " + retryAfter.toSeconds() + "s");
+        this.retryAfter = retryAfter;
+    }
+}
@@ -1,6 +1,5 @@
 package com.brand.octocat.mapper;
 
-import com.brand.octocat.model.api.GithubRepoResponse;
 import com.brand.octocat.model.api.GithubUserResponse;
 import com.brand.octocat.model.dto.RepoDto;
 import com.brand.octocat.model.dto.UserDto;
@@ -22,9 +21,10 @@ public interface GithubMapper {
     @Mapping(target = "url", source = "user.url")
     @Mapping(target = "createdAt", expression = "java(formatCreatedAt(user.createdAt()))")
     @Mapping(target = "repos", source = "repos")
-    UserDto toUserDto(GithubUserResponse user, List<GithubRepoResponse> repos);
+    UserDto toUserDto(GithubUserResponse user, List<RepoDto> repos);
 
-    RepoDto toRepoDto(GithubRepoResponse repo);
+    @Mapping(target = "repos", source = "repos")
+    UserDto withRepos(UserDto user, List<RepoDto> repos);
 
     default String formatCreatedAt(OffsetDateTime createdAt) {
         if (createdAt == null) {
@@ -0,0 +1,22 @@
+package com.brand.octocat.model.api;
+
+import java.util.List;
+
+/**
+ * Outcome of a possibly conditional GitHub request: either a fresh body with the validators
+ * GitHub returned for it (one per page for paginated resources), or a 304 with no body.
+ */
+public record Conditional<T>(
+        T body,
+        List<Validator> validators,
+        boolean notModified
+) {
+
+    public static <T> Conditional<T> of(T body, List<Validator> validators) {
+        return new Conditional<>(body, validators, false);
+    }
+
+    public static <T> Conditional<T> unchanged() {
+        return new Conditional<>(null, List.of(), true);
+    }
+}
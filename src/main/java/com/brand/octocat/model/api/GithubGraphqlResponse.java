@@ -0,0 +1,36 @@
+package com.brand.octocat.model.api;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Response to the GraphQL user query, holding one page of the user's repositories.
+ * {@code data.user} is null when the login does not exist, with a {@code NOT_FOUND} error.
+ */
+public record GithubGraphqlResponse(Data data, List<Error> errors) {
+
+    public record Data(User user) {
+    }
+
+    public record User(
+            String login,
+            String name,
+            String avatarUrl,
+            String location,
+            String email,
+            OffsetDateTime createdAt,
+            Repositories repositories) {
+    }
+
+    public record Repositories(PageInfo pageInfo, List<Repository> nodes) {
+    }
+
+    public record PageInfo(boolean hasNextPage, String endCursor) {
+    }
+
+    public record Repository(String name, String nameWithOwner) {
+    }
+
+    public record Error(String type, String message) {
+    }
+}
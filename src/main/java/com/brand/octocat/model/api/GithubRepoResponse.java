@@ -1,8 +0,0 @@
-package com.brand.octocat.model.api;
-
-public record GithubRepoResponse(
-        String name,
-        String url
-) {
-}
-
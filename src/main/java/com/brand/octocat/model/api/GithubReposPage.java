@@ -0,0 +1,14 @@
+package com.brand.octocat.model.api;
+
+import com.brand.octocat.model.dto.RepoDto;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.util.List;
+
+/**
+ * One page of GitHub's {@code /users/{username}/repos} listing, read straight into
+ * {@link RepoDto}s by {@link GithubReposPageDeserializer}.
+ */
+@JsonDeserialize(using = GithubReposPageDeserializer.class)
+public record GithubReposPage(List<RepoDto> repos) {
+}
@@ -0,0 +1,63 @@
+package com.brand.octocat.model.api;
+
+import com.brand.octocat.model.dto.RepoDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a repos page token by token, keeping only the top-level {@code name} and {@code url}
+ * of each repo. The roughly hundred other fields per repo, nested owner and license objects
+ * included, are skipped without being bound to anything.
+ */
+public class GithubReposPageDeserializer extends StdDeserializer<GithubReposPage> {
+
+    public GithubReposPageDeserializer() {
+        super(GithubReposPage.class);
+    }
+
+    @Override
+    public GithubReposPage deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (GithubReposPage) context.handleUnexpectedToken(GithubReposPage.class, parser);
+        }
+
+        List<RepoDto> repos = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                repos.add(readRepo(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new GithubReposPage(repos);
+    }
+
+    private static RepoDto readRepo(JsonParser parser) throws IOException {
+        String name = null;
+        String url = null;
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = scalarText(parser);
+                case "url" -> url = scalarText(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new RepoDto(name, url);
+    }
+
+    private static String scalarText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
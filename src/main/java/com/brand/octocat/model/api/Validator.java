@@ -0,0 +1,28 @@
+package com.brand.octocat.model.api;
+
+import org.springframework.http.HttpHeaders;
+
+public record Validator(
+        String etag,
+        String lastModified
+) {
+
+    public static Validator from(HttpHeaders headers) {
+        return new Validator(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+    }
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null;
+    }
+
+    public HttpHeaders toConditionalHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        if (lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,65 @@
+package com.brand.octocat.model.cache;
+
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.dto.UserDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A cached user with the validators to revalidate it. {@code fetchedAt} moves forward on every
+ * fetch or revalidation, {@code modifiedAt} only when the user's data changed. {@code contentHash}
+ * identifies the user's data, computed when the entry is stored, and backs the response ETag.
+ */
+public record CachedUser(
+        UserDto user,
+        List<Validator> userValidators,
+        List<Validator> reposValidators,
+        Instant fetchedAt,
+        Instant modifiedAt,
+        String contentHash
+) {
+
+    public CachedUser {
+        // entries written before modifiedAt existed
+        if (modifiedAt == null) {
+            modifiedAt = fetchedAt;
+        }
+    }
+
+    public CachedUser(UserDto user, List<Validator> userValidators, List<Validator> reposValidators,
+                      Instant fetchedAt) {
+        this(user, userValidators, reposValidators, fetchedAt, fetchedAt);
+    }
+
+    public CachedUser(UserDto user, List<Validator> userValidators, List<Validator> reposValidators,
+                      Instant fetchedAt, Instant modifiedAt) {
+        this(user, userValidators, reposValidators, fetchedAt, modifiedAt, null);
+    }
+
+    public boolean isFresh(Instant now, Duration ttl) {
+        return fetchedAt.plus(ttl).isAfter(now);
+    }
+
+    /**
+     * False for a profile entry, cached without its repos.
+     */
+    public boolean hasRepos() {
+        return user.repos() != null;
+    }
+
+    public boolean canRevalidate() {
+        return !userValidators.isEmpty() && !reposValidators.isEmpty()
+                && userValidators.stream().noneMatch(Validator::isEmpty)
+                && reposValidators.stream().noneMatch(Validator::isEmpty);
+    }
+
+    public CachedUser revalidated(Instant now) {
+        return new CachedUser(user, userValidators, reposValidators, now, modifiedAt, contentHash);
+    }
+
+    public CachedUser withContentHash(String hash) {
+        return new CachedUser(user, userValidators, reposValidators, fetchedAt, modifiedAt, hash);
+    }
+}
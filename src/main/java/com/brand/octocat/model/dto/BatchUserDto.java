@@ -0,0 +1,22 @@
+package com.brand.octocat.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchUserDto(
+        String username,
+        HttpStatus status,
+        UserDto user,
+        String error,
+        Boolean stale
+) {
+
+    public static BatchUserDto found(String username, UserDto user, boolean stale) {
+        return new BatchUserDto(username, HttpStatus.OK, user, null, stale ? Boolean.TRUE : null);
+    }
+
+    public static BatchUserDto failed(String username, HttpStatus status, String error) {
+        return new BatchUserDto(username, status, null, error, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.brand.octocat.model.dto;
+
+import java.util.List;
+
+public record BatchUserRequest(
+        List<String> usernames
+) {
+}
@@ -1,5 +1,6 @@
 package com.brand.octocat.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -12,5 +13,5 @@ public record UserDto(
         String email,
         String url,
         @JsonProperty("created_at") String createdAt,
-        List<RepoDto> repos
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<RepoDto> repos
 ) {}
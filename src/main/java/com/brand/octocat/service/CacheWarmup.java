@@ -0,0 +1,224 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.config.CacheConfig;
+import com.brand.octocat.config.RateLimitGovernor;
+import com.brand.octocat.model.dto.BatchUserDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-populates the {@code users} cache after startup from the configured usernames, an
+ * optional hot-user file and the users that were hottest when the previous run shut down.
+ * Users are loaded in batches through {@link GithubBatchService}. Each batch is sized from
+ * the rate-limit budget left above the reserve, at {@link #CALLS_PER_USER} calls per user, so
+ * loading stops before it can spend the reserve kept for live traffic.
+ * <p>
+ * As a health indicator it keeps readiness down until {@code ready-fraction} of the users
+ * have loaded, the warm-up has finished, or {@code ready-timeout} has passed.
+ */
+@Slf4j
+@Component
+public class CacheWarmup implements HealthIndicator {
+
+    /**
+     * A user costs a profile call plus at least one repos page. Larger accounts cost more,
+     * which the next batch sees in the budget.
+     */
+    static final int CALLS_PER_USER = 2;
+
+    private final GithubBatchService batchService;
+    private final RateLimitGovernor rateLimitGovernor;
+    private final Cache usersCache;
+
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile int total;
+    private volatile boolean finished;
+    private volatile Instant startedAt;
+    private Clock clock = Clock.systemUTC();
+
+    @Value("${github.cache.warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${github.cache.warmup.usernames}")
+    private List<String> usernames;
+
+    @Value("${github.cache.warmup.file}")
+    private String file;
+
+    @Value("${github.cache.warmup.hot-users-file}")
+    private String hotUsersFile;
+
+    @Value("${github.cache.warmup.max-users}")
+    private int maxUsers;
+
+    @Value("${github.cache.warmup.ready-fraction}")
+    private double readyFraction;
+
+    @Value("${github.cache.warmup.ready-timeout}")
+    private Duration readyTimeout;
+
+    @Value("${github.batch.max-size}")
+    private int batchSize;
+
+    public CacheWarmup(GithubBatchService batchService, RateLimitGovernor rateLimitGovernor,
+                       CacheManager cacheManager) {
+        this.batchService = batchService;
+        this.rateLimitGovernor = rateLimitGovernor;
+        this.usersCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USERS_CACHE));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            finished = true;
+            return;
+        }
+        startedAt = clock.instant();
+        Thread thread = new Thread(this::warmUp, "cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmUp() {
+        try {
+            List<String> users = hotUsers();
+            total = users.size();
+            log.info("Warming users cache with {} users", total);
+
+            int from = 0;
+            while (from < users.size()) {
+                int size = nextBatchSize();
+                if (size == 0) {
+                    log.warn("Rate-limit budget at reserve, skipping warm-up of the remaining {} users",
+                            users.size() - from);
+                    break;
+                }
+                List<String> batch = users.subList(from, Math.min(from + size, users.size()));
+                batchService.streamUsers(batch).forEach(this::record);
+                from += batch.size();
+            }
+            log.info("Users cache warm-up finished, {} loaded, {} failed", loaded.get(), failed.get());
+        } catch (RuntimeException ex) {
+            log.error("Users cache warm-up aborted", ex);
+        } finally {
+            finished = true;
+        }
+    }
+
+    /**
+     * Until a GitHub response has reported the budget, one user is loaded to learn it.
+     */
+    private int nextBatchSize() {
+        long budget = rateLimitGovernor.backgroundBudget();
+        if (budget < 0) {
+            return 1;
+        }
+        return (int) Math.min(batchSize, budget / CALLS_PER_USER);
+    }
+
+    /**
+     * Configured usernames first, then the hot-user file, then the previous run's hottest
+     * users, without duplicates and capped at {@code max-users}.
+     */
+    List<String> hotUsers() {
+        Set<String> users = new LinkedHashSet<>();
+        usernames.stream().filter(StringUtils::isNotBlank).map(String::trim).forEach(users::add);
+        users.addAll(readUsernames(file));
+        users.addAll(readUsernames(hotUsersFile));
+        return users.stream().limit(maxUsers).toList();
+    }
+
+    /**
+     * Writes the users the cache considers hottest on shutdown, so the next run warms what
+     * was in demand.
+     */
+    @PreDestroy
+    public void recordHotUsers() {
+        if (!enabled || StringUtils.isBlank(hotUsersFile)
+                || !(usersCache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            return;
+        }
+
+        List<String> hottest = nativeCache.policy().eviction()
+                .map(eviction -> eviction.hottest(maxUsers).keySet().stream().map(Object::toString).toList())
+                .orElse(List.of());
+        Path path = Path.of(hotUsersFile);
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            Files.write(path, hottest);
+            log.info("Recorded {} hot users to {}", hottest.size(), path);
+        } catch (IOException ex) {
+            log.warn("Could not record hot users to {}", path, ex);
+        }
+    }
+
+    @Override
+    public Health health() {
+        int done = loaded.get();
+        Health.Builder health = isReady(done) ? Health.up() : Health.outOfService();
+        return health.withDetail("total", total)
+                .withDetail("loaded", done)
+                .withDetail("failed", failed.get())
+                .withDetail("finished", finished)
+                .build();
+    }
+
+    private boolean isReady(int done) {
+        return finished
+                || (total > 0 && done >= Math.ceil(total * readyFraction))
+                || (startedAt != null && !clock.instant().isBefore(startedAt.plus(readyTimeout)));
+    }
+
+    private void record(BatchUserDto result) {
+        if (result.status() == HttpStatus.OK) {
+            loaded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+            log.debug("Warm-up of '{}' failed with {}: {}", result.username(), result.status(), result.error());
+        }
+    }
+
+    private static List<String> readUsernames(String location) {
+        if (StringUtils.isBlank(location)) {
+            return List.of();
+        }
+        Path path = Path.of(location);
+        if (!Files.isReadable(path)) {
+            return List.of();
+        }
+        try (var lines = Files.lines(path)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException ex) {
+            log.warn("Could not read hot users from {}", path, ex);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.error.RateLimitExceededException;
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.dto.BatchUserDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Resolves many usernames at once through {@link GithubService}, so batch and single-user
+ * requests share cache entries. Cache hits are answered inline; misses are fetched on the
+ * shared {@code githubBatchExecutor}, whose pool size caps concurrent batch fetches across
+ * all requests. Each username gets its own result, so one failure does not fail the batch.
+ * GitHub logins are case-insensitive, so usernames differing only in case are resolved once,
+ * under the spelling that came first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GithubBatchService {
+
+    private final GithubService service;
+    private final AsyncTaskExecutor githubBatchExecutor;
+
+    @Value("${github.batch.max-size}")
+    private int maxSize;
+
+    public List<BatchUserDto> getUsers(List<String> usernames) {
+        return submit(usernames).stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Starts the batch and returns its results lazily in completion order, so each user can be
+     * written out as soon as it resolves. Validation happens before this method returns.
+     */
+    public Stream<BatchUserDto> streamUsers(List<String> usernames) {
+        List<CompletableFuture<BatchUserDto>> results = submit(usernames);
+        BlockingQueue<BatchUserDto> completed = new LinkedBlockingQueue<>();
+        results.forEach(result -> result.thenAccept(completed::add));
+        return Stream.generate(() -> take(completed)).limit(results.size());
+    }
+
+    private List<CompletableFuture<BatchUserDto>> submit(List<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            throw new IllegalArgumentException("Usernames must not be empty");
+        }
+
+        Collection<String> unique = unique(usernames);
+        if (unique.size() > maxSize) {
+            throw new IllegalArgumentException("At most " + maxSize + " usernames are allowed per batch");
+        }
+
+        log.info("Resolving batch of {} users ({} requested)", unique.size(), usernames.size());
+
+        List<CompletableFuture<BatchUserDto>> results = new ArrayList<>(unique.size());
+        for (String username : unique) {
+            results.add(resolve(username));
+        }
+        return results;
+    }
+
+    private static Collection<String> unique(List<String> usernames) {
+        Map<String, String> byLogin = new LinkedHashMap<>();
+        for (String username : usernames) {
+            byLogin.putIfAbsent(username == null ? null : username.toLowerCase(Locale.ROOT), username);
+        }
+        return byLogin.values();
+    }
+
+    private static BatchUserDto take(BlockingQueue<BatchUserDto> completed) {
+        try {
+            return completed.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch results", ex);
+        }
+    }
+
+    private CompletableFuture<BatchUserDto> resolve(String username) {
+        if (StringUtils.isBlank(username)) {
+            return CompletableFuture.completedFuture(
+                    BatchUserDto.failed(username, HttpStatus.BAD_REQUEST, "Username must not be empty"));
+        }
+
+        Optional<UserResult> cached = service.getCachedUser(username);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(toDto(username, cached.get()));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> fetch(username), githubBatchExecutor);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Batch fetch queue full, rejecting '{}'", username);
+            return CompletableFuture.completedFuture(
+                    BatchUserDto.failed(username, HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent fetches, retry later"));
+        }
+    }
+
+    private BatchUserDto fetch(String username) {
+        try {
+            return toDto(username, service.lookupUser(username));
+
+        } catch (UsernameNotFoundException ex) {
+            return BatchUserDto.failed(username, HttpStatus.NOT_FOUND, ex.getMessage());
+
+        } catch (RateLimitExceededException ex) {
+            return BatchUserDto.failed(username, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+
+        } catch (RestClientException ex) {
+            log.error("GitHub API error while resolving '{}' in batch", username, ex);
+            return BatchUserDto.failed(username, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+
+        } catch (RuntimeException ex) {
+            log.error("Unexpected error while resolving '{}' in batch", username, ex);
+            return BatchUserDto.failed(username, HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+        }
+    }
+
+    private static BatchUserDto toDto(String username, UserResult result) {
+        return BatchUserDto.found(username, result.user(), result.stale());
+    }
+}
@@ -1,35 +1,515 @@
 package com.brand.octocat.service;
 
+import com.brand.octocat.config.CacheConfig;
+import com.brand.octocat.config.CachedUserCodec;
 import com.brand.octocat.config.GithubClient;
+import com.brand.octocat.config.GithubGraphqlClient;
+import com.brand.octocat.config.NegativeUserCache;
+import com.brand.octocat.config.RateLimitGovernor;
+import com.brand.octocat.config.SharedUserStore;
+import com.brand.octocat.error.UsernameNotFoundException;
 import com.brand.octocat.mapper.GithubMapper;
-import com.brand.octocat.model.api.GithubRepoResponse;
+import com.brand.octocat.model.api.Conditional;
 import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.RepoDto;
 import com.brand.octocat.model.dto.UserDto;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class GithubService {
+public class GithubService implements MeterBinder {
+
+    private static final Duration LEASE_POLL = Duration.ofMillis(50);
 
     private final GithubClient client;
+    private final GithubGraphqlClient graphqlClient;
     private final GithubMapper mapper;
+    private final AsyncTaskExecutor githubExecutor;
+    private final AsyncTaskExecutor githubRefreshExecutor;
+    private final RateLimitGovernor rateLimitGovernor;
+    private final NegativeUserCache negativeCache;
+    private final Cache usersCache;
+    private final Cache staleUsersCache;
+    private final SharedUserStore sharedUserStore;
+    private final SingleFlight<String, CachedUser> inFlight = new SingleFlight<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private Clock clock = Clock.systemUTC();
+    private Timer mappingTimer;
+
+    @Value("${github.fetch.parallel}")
+    private boolean parallel;
+
+    @Value("${github.cache.users.ttl}")
+    private Duration ttl;
+
+    @Value("${github.cache.users.hard-ttl}")
+    private Duration hardTtl;
+
+    @Value("${github.cache.users.max-staleness}")
+    private Duration maxStaleness;
+
+    @Value("${github.cache.users.revalidate}")
+    private boolean revalidate;
+
+    @Value("${github.cache.users.shared.lease}")
+    private Duration lease;
+
+    public GithubService(GithubClient client, GithubMapper mapper, AsyncTaskExecutor githubExecutor,
+                         AsyncTaskExecutor githubRefreshExecutor, RateLimitGovernor rateLimitGovernor,
+                         NegativeUserCache negativeCache, CacheManager cacheManager,
+                         Optional<GithubGraphqlClient> graphqlClient, Optional<SharedUserStore> sharedUserStore) {
+        this.client = client;
+        this.graphqlClient = graphqlClient.orElse(null);
+        this.mapper = mapper;
+        this.githubExecutor = githubExecutor;
+        this.githubRefreshExecutor = githubRefreshExecutor;
+        this.rateLimitGovernor = rateLimitGovernor;
+        this.negativeCache = negativeCache;
+        this.usersCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USERS_CACHE));
+        this.staleUsersCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USERS_STALE_CACHE));
+        this.sharedUserStore = sharedUserStore.orElse(null);
+    }
 
-    @Cacheable("users")
     public UserDto getUser(String username) {
-        log.info("Fetching user data for '{}'", username);
+        return lookupUser(username).user();
+    }
+
+    /**
+     * Serves fresh entries directly. Between {@code ttl} and {@code hard-ttl} the cached entry
+     * is still served while a single background refresh runs; only past {@code hard-ttl}, or
+     * on a miss, does the caller wait for GitHub. If that wait ends in an upstream error, an
+     * entry fetched within {@code max-staleness} is served instead, marked as stale.
+     * Usernames GitHub recently answered with 404 fail without a call.
+     * <p>
+     * A profile entry cached by {@link #lookupProfile} is completed with the repos alone.
+     */
+    public UserResult lookupUser(String username) {
+        return lookup(username, true);
+    }
+
+    /**
+     * Like {@link #lookupUser}, but for the profile alone: the returned user has no repos. On a
+     * miss only the profile is fetched and cached, skipping the repos calls.
+     */
+    public UserResult lookupProfile(String username) {
+        UserResult result = lookup(username, false);
+        return result.user().repos() == null ? result : new UserResult(
+                mapper.withRepos(result.user(), null), result.stale(), result.age(), result.lastModified());
+    }
+
+    private UserResult lookup(String username, boolean withRepos) {
+        CachedUser cached = usersCache.get(key(username), CachedUser.class);
+        if (cached != null && (cached.hasRepos() || !withRepos)) {
+            Optional<UserResult> servable = servable(username, cached);
+            if (servable.isPresent()) {
+                return servable.get();
+            }
+        }
+        if (negativeCache.isKnownMissing(username)) {
+            throw new UsernameNotFoundException(username);
+        }
+
+        try {
+            CachedUser loaded = inFlight.execute(key(username), () -> load(username, withRepos));
+            if (withRepos && !loaded.hasRepos()) {
+                // joined a profile load, so the repos are still missing
+                loaded = inFlight.execute(key(username), () -> load(username, true));
+            }
+            return UserResult.fresh(loaded, clock.instant());
+
+        } catch (RestClientException ex) {
+            return fallback(username, withRepos, ex);
+        }
+    }
+
+    /**
+     * Serves the newest entry fetched within {@code max-staleness}, from the main cache or the
+     * stale tier, marked as stale; rethrows the upstream error when there is none.
+     */
+    public UserResult fallback(String username, RestClientException ex) {
+        return fallback(username, true, ex);
+    }
+
+    private UserResult fallback(String username, boolean withRepos, RestClientException ex) {
+        CachedUser fallback = usersCache.get(key(username), CachedUser.class);
+        if (fallback == null || (withRepos && !fallback.hasRepos())) {
+            fallback = staleUsersCache.get(key(username), CachedUser.class);
+        }
+        Instant now = clock.instant();
+        if (fallback == null || (withRepos && !fallback.hasRepos()) || !fallback.isFresh(now, maxStaleness)) {
+            throw ex;
+        }
+
+        log.warn("GitHub unavailable for '{}', serving entry fetched at {}", username, fallback.fetchedAt());
+        return new UserResult(fallback.user(), true, Duration.between(fallback.fetchedAt(), now),
+                fallback.modifiedAt(), fallback.contentHash());
+    }
+
+    /**
+     * Caches a user fetched outside this service. It carries no validators, so it is
+     * refetched in full once expired.
+     */
+    public void store(String username, UserDto user) {
+        store(username, new CachedUser(user, List.of(), List.of(), clock.instant()));
+    }
+
+    /**
+     * Caches the entry with its content hash, computed here once per stored version so requests
+     * can compare ETags without serialising the user. A revalidated entry keeps its hash.
+     */
+    private CachedUser store(String username, CachedUser entry) {
+        CachedUser hashed = entry.contentHash() != null
+                ? entry
+                : entry.withContentHash(CachedUserCodec.contentHash(entry.user()));
+        usersCache.put(key(username), hashed);
+        return hashed;
+    }
+
+    /**
+     * Returns the user profile without repos, for streaming responses that send the repos
+     * separately through {@link #forEachReposPage}. See {@link #lookupProfile}.
+     */
+    public UserDto getProfile(String username) {
+        return lookupProfile(username).user();
+    }
+
+    /**
+     * Hands the user's repos to the consumer page by page. A cached user is replayed from its
+     * entry; otherwise each GitHub page is passed on as it arrives. Such a pass is
+     * never cached, since that would mean holding every page at once.
+     */
+    public void forEachReposPage(String username, Consumer<List<RepoDto>> pageConsumer) {
+        Optional<UserResult> cached = getCachedUser(username);
+        if (cached.isPresent()) {
+            pageConsumer.accept(cached.get().user().repos());
+            return;
+        }
+        client.forEachReposPage(username, pageConsumer);
+    }
+
+    /**
+     * Returns the user, repos included, only if it can be served from the cache without
+     * waiting for GitHub.
+     */
+    public Optional<UserResult> getCachedUser(String username) {
+        CachedUser cached = usersCache.get(key(username), CachedUser.class);
+        return cached == null || !cached.hasRepos() ? Optional.empty() : servable(username, cached);
+    }
+
+    private Optional<UserResult> servable(String username, CachedUser cached) {
+        Instant now = clock.instant();
+        if (cached.isFresh(now, ttl)) {
+            return Optional.of(UserResult.fresh(cached, now));
+        }
+        if (cached.isFresh(now, hardTtl)) {
+            scheduleRefresh(username, cached.hasRepos());
+            return Optional.of(UserResult.fresh(cached, now));
+        }
+        return Optional.empty();
+    }
+
+    public int inFlightCount() {
+        return inFlight.inFlightCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.fetch.in-flight", this, GithubService::inFlightCount)
+                .description("Usernames with a GitHub fetch in progress")
+                .tag("mode", "blocking")
+                .register(registry);
+        mappingTimer = Timer.builder("github.mapping")
+                .description("Time spent mapping GitHub responses to DTOs")
+                .tag("mode", "blocking")
+                .register(registry);
+    }
 
-        GithubUserResponse user = client.getUser(username);
-        List<GithubRepoResponse> repos = client.getRepos(username);
+    private void scheduleRefresh(String username, boolean withRepos) {
+        if (!rateLimitGovernor.allowsBackgroundWork()) {
+            log.debug("GitHub budget low, skipping background refresh of '{}'", username);
+            return;
+        }
+        if (!refreshing.add(key(username))) {
+            return;
+        }
 
-        UserDto userDto = mapper.toUserDto(user, repos);
+        try {
+            githubRefreshExecutor.execute(() -> {
+                try {
+                    inFlight.execute(key(username), () -> load(username, withRepos));
+                } catch (RuntimeException ex) {
+                    log.warn("Background refresh failed for '{}'", username, ex);
+                } finally {
+                    refreshing.remove(key(username));
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            log.debug("Refresh queue full, '{}' will be refreshed on a later read", username);
+            refreshing.remove(key(username));
+        }
+    }
+
+    /**
+     * Loads the user, with repos or not. With a shared backend, replicas take a lease on the
+     * username first, so only one of them calls GitHub while the others wait for its entry.
+     * A replica whose wait outlasts the lease, because the holder died, fetches on its own.
+     */
+    private CachedUser load(String username, boolean withRepos) {
+        // a caller that missed just before the previous load finished must not fetch again
+        CachedUser cached = usersCache.get(key(username), CachedUser.class);
+        if (isLoaded(cached, withRepos)) {
+            return cached;
+        }
+        if (sharedUserStore == null) {
+            return fetchAndStore(username, withRepos, cached);
+        }
+
+        long deadline = System.nanoTime() + lease.toNanos();
+        while (!tryLease(username)) {
+            if (System.nanoTime() >= deadline) {
+                log.warn("Lease on '{}' outlasted {}, fetching without it", username, lease);
+                return fetchAndStore(username, withRepos, cached);
+            }
+            pause(username);
+            cached = usersCache.get(key(username), CachedUser.class);
+            if (isLoaded(cached, withRepos)) {
+                log.debug("User '{}' loaded by another replica", username);
+                return cached;
+            }
+        }
+        try {
+            return fetchAndStore(username, withRepos, cached);
+        } finally {
+            releaseLease(username);
+        }
+    }
+
+    /**
+     * GitHub logins are case-insensitive, so every spelling of a username shares one entry, as
+     * in the {@link NegativeUserCache}.
+     */
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private boolean isLoaded(CachedUser cached, boolean withRepos) {
+        return cached != null && cached.isFresh(clock.instant(), ttl) && (cached.hasRepos() || !withRepos);
+    }
+
+    /**
+     * Failures of the shared store count as a granted lease, so the node keeps fetching alone.
+     */
+    private boolean tryLease(String username) {
+        try {
+            return sharedUserStore.tryLease(key(username), lease);
+        } catch (RuntimeException ex) {
+            log.warn("Shared users cache unavailable, fetching '{}' without a lease", username, ex);
+            return true;
+        }
+    }
+
+    private void releaseLease(String username) {
+        try {
+            sharedUserStore.releaseLease(key(username));
+        } catch (RuntimeException ex) {
+            log.debug("Could not release lease on '{}', it expires on its own", username, ex);
+        }
+    }
+
+    private void pause(String username) {
+        try {
+            Thread.sleep(LEASE_POLL.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for the lease on '" + username + "'", ex);
+        }
+    }
+
+    /**
+     * Fetches the user, with repos or not. A cached full entry is always refreshed in full, so a
+     * profile request never drops repos; a fresh profile entry only needs its repos.
+     */
+    private CachedUser fetchAndStore(String username, boolean withRepos, CachedUser cached) {
+        boolean fresh = cached != null && cached.isFresh(clock.instant(), ttl);
+        CachedUser refreshed;
+        try {
+            if (fresh) {
+                log.info("Fetching repos for cached profile of '{}'", username);
+                refreshed = fetchRepos(username, cached);
+            } else if (withRepos || (cached != null && cached.hasRepos())) {
+                CachedUser previous = revalidate && cached != null && cached.canRevalidate() ? cached : null;
+                log.info("{} user data for '{}'", previous == null ? "Fetching" : "Revalidating", username);
+                refreshed = fetch(username, previous);
+            } else {
+                log.info("Fetching profile for '{}'", username);
+                refreshed = fetchProfile(username, revalidate ? cached : null);
+            }
+        } catch (UsernameNotFoundException ex) {
+            negativeCache.recordMissing(username);
+            throw ex;
+        }
+        refreshed = store(username, refreshed);
 
         log.info("Successfully built DTO for '{}'", username);
-        return userDto;
+        return refreshed;
+    }
+
+    /**
+     * With {@code github.upstream=graphql} the user and repos come from one GraphQL query
+     * sequence; otherwise from the REST endpoints, conditionally when a previous entry is given.
+     */
+    private CachedUser fetch(String username, CachedUser previous) {
+        if (graphqlClient != null) {
+            GithubGraphqlClient.UserWithRepos fetched = graphqlClient.getUserWithRepos(username);
+            return merge(previous, Conditional.of(fetched.user(), List.of()),
+                    Conditional.of(fetched.repos(), List.of()));
+        }
+
+        List<Validator> userValidators = previous == null ? List.of() : previous.userValidators();
+        List<Validator> reposValidators = previous == null ? List.of() : previous.reposValidators();
+        List<RepoDto> previousRepos = previous == null ? null : previous.user().repos();
+
+        if (!parallel) {
+            Conditional<GithubUserResponse> user = client.getUser(username, userValidators);
+            Conditional<List<RepoDto>> repos = client.getRepos(username, reposValidators, previousRepos);
+            return merge(previous, user, repos);
+        }
+
+        Future<Conditional<List<RepoDto>>> reposFuture =
+                githubExecutor.submit(() -> client.getRepos(username, reposValidators, previousRepos));
+
+        Conditional<GithubUserResponse> user;
+        try {
+            user = client.getUser(username, userValidators);
+        } catch (RuntimeException ex) {
+            log.debug("User lookup for '{}' failed, cancelling repos fetch", username);
+            reposFuture.cancel(true);
+            throw ex;
+        }
+
+        return merge(previous, user, await(reposFuture, username));
+    }
+
+    /**
+     * Fetches the profile alone, conditionally when a previous profile entry is given.
+     */
+    private CachedUser fetchProfile(String username, CachedUser previous) {
+        Instant now = clock.instant();
+        if (graphqlClient != null) {
+            UserDto userDto = mapper.toUserDto(graphqlClient.getUser(username), null);
+            return new CachedUser(userDto, List.of(), List.of(), now, modifiedAt(previous, userDto, now));
+        }
+
+        List<Validator> validators = previous == null ? List.of() : previous.userValidators();
+        Conditional<GithubUserResponse> user = client.getUser(username, validators);
+        if (user.notModified()) {
+            return previous.revalidated(now);
+        }
+        UserDto userDto = mapper.toUserDto(user.body(), null);
+        return new CachedUser(userDto, user.validators(), List.of(), now, modifiedAt(previous, userDto, now));
+    }
+
+    /**
+     * Adds the repos to a fresh profile entry. The entry keeps the profile's fetch time, so it
+     * expires with its older part.
+     */
+    private CachedUser fetchRepos(String username, CachedUser profile) {
+        if (graphqlClient != null) {
+            // one query sequence returns the profile along with the repos anyway
+            return fetch(username, null);
+        }
+
+        Conditional<List<RepoDto>> repos = client.getRepos(username, List.of(), null);
+        UserDto userDto = mappingTimer == null
+                ? mapper.withRepos(profile.user(), repos.body())
+                : mappingTimer.record(() -> mapper.withRepos(profile.user(), repos.body()));
+        return new CachedUser(userDto, profile.userValidators(), repos.validators(), profile.fetchedAt());
+    }
+
+    /**
+     * Combines fresh and revalidated parts. When GitHub answers 304 for both resources the
+     * previous entry is kept as is and only its fetch time moves forward.
+     */
+    private CachedUser merge(CachedUser previous, Conditional<GithubUserResponse> user,
+                             Conditional<List<RepoDto>> repos) {
+        if (user.notModified() && repos.notModified()) {
+            log.debug("GitHub data for '{}' not modified, extending cached entry", previous.user().userName());
+            return previous.revalidated(clock.instant());
+        }
+
+        UserDto userDto = mappingTimer == null
+                ? map(previous, user, repos)
+                : mappingTimer.record(() -> map(previous, user, repos));
+
+        Instant now = clock.instant();
+        return new CachedUser(
+                userDto,
+                user.notModified() ? previous.userValidators() : user.validators(),
+                repos.notModified() ? previous.reposValidators() : repos.validators(),
+                now,
+                modifiedAt(previous, userDto, now));
+    }
+
+    /**
+     * A refetch that yields the same data, for example after a validator was lost, keeps the
+     * previous modification time.
+     */
+    private static Instant modifiedAt(CachedUser previous, UserDto user, Instant now) {
+        return previous != null && previous.user().equals(user) ? previous.modifiedAt() : now;
+    }
+
+    private UserDto map(CachedUser previous, Conditional<GithubUserResponse> user,
+                        Conditional<List<RepoDto>> repos) {
+        if (user.notModified()) {
+            return mapper.withRepos(previous.user(), repos.body());
+        }
+        if (repos.notModified()) {
+            return mapper.withRepos(mapper.toUserDto(user.body(), null), previous.user().repos());
+        }
+        return mapper.toUserDto(user.body(), repos.body());
+    }
+
+    private <T> T await(Future<T> future, String username) {
+        try {
+            return future.get();
+
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RestClientException("Error fetching repos for '" + username + "'", ex.getCause());
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RestClientException("Interrupted while fetching repos for '" + username + "'", ex);
+        }
     }
 }
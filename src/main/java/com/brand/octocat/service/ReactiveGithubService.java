@@ -0,0 +1,95 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.config.NegativeUserCache;
+import com.brand.octocat.config.ReactiveGithubClient;
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.mapper.GithubMapper;
+import com.brand.octocat.model.dto.UserDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of {@link GithubService#lookupUser}: it reads and fills the same
+ * cache and falls back to the same stale entries, but no thread waits while GitHub answers.
+ * Concurrent misses for one username share a single upstream fetch, and the same negative
+ * cache answers recently missing usernames.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveGithubService implements MeterBinder {
+
+    private final GithubService service;
+    private final ReactiveGithubClient client;
+    private final GithubMapper mapper;
+    private final NegativeUserCache negativeCache;
+
+    private final Map<String, Mono<UserDto>> inFlight = new ConcurrentHashMap<>();
+
+    private Timer mappingTimer;
+
+    public Mono<UserResult> lookupUser(String username) {
+        return Mono.defer(() -> service.getCachedUser(username)
+                .map(Mono::just)
+                .orElseGet(() -> loadOrFallback(username)));
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.fetch.in-flight", this, ReactiveGithubService::inFlightCount)
+                .description("Usernames with a GitHub fetch in progress")
+                .tag("mode", "reactive")
+                .register(registry);
+        mappingTimer = Timer.builder("github.mapping")
+                .description("Time spent mapping GitHub responses to DTOs")
+                .tag("mode", "reactive")
+                .register(registry);
+    }
+
+    private Mono<UserResult> loadOrFallback(String username) {
+        if (negativeCache.isKnownMissing(username)) {
+            return Mono.error(new UsernameNotFoundException(username));
+        }
+        return load(username)
+                .map(UserResult::fresh)
+                .onErrorResume(RestClientException.class,
+                        ex -> Mono.fromCallable(() -> service.fallback(username, ex)));
+    }
+
+    private Mono<UserDto> load(String username) {
+        return inFlight.computeIfAbsent(username, key -> {
+            // only this fetch may deregister itself, never one registered after it
+            AtomicReference<Mono<UserDto>> self = new AtomicReference<>();
+            Mono<UserDto> shared = fetch(key)
+                    .doOnNext(user -> service.store(key, user))
+                    .doOnError(UsernameNotFoundException.class, ex -> negativeCache.recordMissing(key))
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(shared);
+            return shared;
+        });
+    }
+
+    private Mono<UserDto> fetch(String username) {
+        log.info("Fetching user data for '{}' (reactive)", username);
+        return Mono.zip(client.getUser(username), client.getRepos(username))
+                .map(tuple -> mappingTimer == null
+                        ? mapper.toUserDto(tuple.getT1(), tuple.getT2())
+                        : mappingTimer.record(() -> mapper.toUserDto(tuple.getT1(), tuple.getT2())));
+    }
+}
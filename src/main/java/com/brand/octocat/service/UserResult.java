@@ -0,0 +1,35 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.UserDto;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A user as served by {@link GithubService}. {@code stale} marks an entry served because
+ * GitHub failed. {@code age} is the time since the user was fetched or last revalidated, and
+ * {@code lastModified} when its data last changed, {@code null} when not known. {@code contentHash}
+ * is the hash stored with the entry, {@code null} when not known.
+ */
+public record UserResult(
+        UserDto user,
+        boolean stale,
+        Duration age,
+        Instant lastModified,
+        String contentHash
+) {
+
+    public UserResult(UserDto user, boolean stale, Duration age, Instant lastModified) {
+        this(user, stale, age, lastModified, null);
+    }
+
+    public static UserResult fresh(UserDto user) {
+        return new UserResult(user, false, Duration.ZERO, null);
+    }
+
+    public static UserResult fresh(CachedUser cached, Instant now) {
+        return new UserResult(cached.user(), false, Duration.between(cached.fetchedAt(), now), cached.modifiedAt(),
+                cached.contentHash());
+    }
+}
@@ -0,0 +1,34 @@
+package com.brand.octocat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prometheus_shouldExposeServiceMetrics() {
+        restTemplate.getForObject("/actuator/health", String.class);
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertThat(scrape)
+                .contains("cache_gets_total{cache=\"users\"")
+                .contains("github_fetch_in_flight{")
+                .contains("github_mapping_seconds_count{")
+                .contains("github_client_response_size_bytes_count{")
+                .contains("github_ratelimit_remaining")
+                .contains("http_server_response_size_bytes_count{")
+                .contains("uri=\"/actuator/health\"")
+                .contains("http_server_requests_seconds_bucket{");
+    }
+}
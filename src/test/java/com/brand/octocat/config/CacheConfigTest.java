@@ -0,0 +1,117 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    @Test
+    void cacheManager_shouldRecordHitsAndMisses() {
+        Cache<Object, Object> users = usersCache(DataSize.ofMegabytes(1));
+
+        users.getIfPresent("octocat");
+        users.put("octocat", user(1));
+        users.getIfPresent("octocat");
+
+        assertThat(users.stats().hitCount()).isEqualTo(1);
+        assertThat(users.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cacheManager_shouldEvictByEstimatedWeight() {
+        Cache<Object, Object> users = usersCache(DataSize.ofKilobytes(64));
+
+        for (int i = 0; i < 50; i++) {
+            users.put("user-" + i, user(100));
+        }
+        users.cleanUp();
+
+        assertThat(users.estimatedSize()).isLessThan(50);
+        assertThat(users.stats().evictionCount()).isPositive();
+        assertThat(users.policy().eviction().orElseThrow().weightedSize().orElseThrow())
+                .isLessThanOrEqualTo(DataSize.ofKilobytes(64).toBytes());
+    }
+
+    @Test
+    void cacheManager_shouldApplyWriteAndAccessExpiry() {
+        Cache<Object, Object> users = usersCache(DataSize.ofMegabytes(1));
+
+        assertThat(users.policy().expireAfterWrite().orElseThrow().getExpiresAfter())
+                .isEqualTo(Duration.ofMinutes(10));
+        assertThat(users.policy().expireAfterAccess().orElseThrow().getExpiresAfter())
+                .isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void cacheManager_shouldMoveEvictedUsersToStaleTier() {
+        CacheConfig config = new CacheConfig(DataSize.ofKilobytes(64), Duration.ofMinutes(10), Duration.ofMinutes(5),
+                DataSize.ofMegabytes(1), Duration.ofHours(24), DataSize.ofKilobytes(64), Duration.ofMinutes(1));
+        CacheManager cacheManager = config.cacheManager(Optional.empty(), Optional.empty());
+        Cache<Object, Object> users = ((CaffeineCache) cacheManager.getCache(CacheConfig.USERS_CACHE)).getNativeCache();
+        Cache<Object, Object> staleUsers =
+                ((CaffeineCache) cacheManager.getCache(CacheConfig.USERS_STALE_CACHE)).getNativeCache();
+
+        for (int i = 0; i < 50; i++) {
+            users.put("user-" + i, user(100));
+        }
+        users.cleanUp();
+
+        assertThat(staleUsers.estimatedSize()).isEqualTo(users.stats().evictionCount()).isPositive();
+    }
+
+    @Test
+    void cacheManager_shouldPutDiskTierBehindUsers_whenEnabled(@TempDir Path dir) {
+        CacheConfig config = new CacheConfig(DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ofMinutes(5),
+                DataSize.ofMegabytes(1), Duration.ofHours(24), DataSize.ofKilobytes(64), Duration.ofMinutes(1));
+        try (DiskUserStore disk = config.diskUserStore(dir.resolve("users.mv"))) {
+            CacheManager cacheManager = config.cacheManager(Optional.of(disk), Optional.empty());
+
+            assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE)).isInstanceOfSatisfying(TieredCache.class,
+                    tiered -> assertThat(tiered.getMemoryTier()).isInstanceOf(CaffeineCache.class));
+            assertThat(cacheManager.getCache(CacheConfig.USERS_STALE_CACHE)).isInstanceOf(CaffeineCache.class);
+        }
+    }
+
+    @Test
+    void cacheManager_shouldPutSharedStoreBehindSmallNearCache_whenEnabled() {
+        CacheConfig config = new CacheConfig(DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ofMinutes(5),
+                DataSize.ofMegabytes(1), Duration.ofHours(24), DataSize.ofKilobytes(64), Duration.ofMinutes(1));
+        CacheManager cacheManager = config.cacheManager(Optional.empty(), Optional.of(new InMemorySharedUserStore()));
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE)).isInstanceOfSatisfying(SharedCache.class, shared -> {
+            Cache<Object, Object> near = ((CaffeineCache) shared.getNearCache()).getNativeCache();
+            assertThat(near.policy().eviction().orElseThrow().getMaximum()).isEqualTo(DataSize.ofKilobytes(64).toBytes());
+            assertThat(near.policy().expireAfterWrite().orElseThrow().getExpiresAfter()).isEqualTo(Duration.ofMinutes(1));
+        });
+    }
+
+    private static Cache<Object, Object> usersCache(DataSize maxSize) {
+        CacheConfig config = new CacheConfig(maxSize, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                DataSize.ofMegabytes(1), Duration.ofHours(24), DataSize.ofKilobytes(64), Duration.ofMinutes(1));
+        CaffeineCache cache = (CaffeineCache) config.cacheManager(Optional.empty(), Optional.empty()).getCache(CacheConfig.USERS_CACHE);
+        assertThat(cache).isNotNull();
+        return cache.getNativeCache();
+    }
+
+    private static UserDto user(int repoCount) {
+        List<RepoDto> repos = IntStream.range(0, repoCount)
+                .mapToObj(i -> new RepoDto("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList();
+        return new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", repos);
+    }
+}
@@ -0,0 +1,48 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedUserCodecTest {
+
+    private final CachedUser entry = new CachedUser(
+            new UserDto("octocat", "The Octocat", "avatar", null, null, "url", "Tue, 25 Jan 2011 18:44:36 GMT",
+                    IntStream.range(0, 20).mapToObj(i -> new RepoDto("repo-" + i, "url-" + i)).toList()),
+            List.of(new Validator("\"user-etag\"", null)),
+            List.of(new Validator("\"repos-etag\"", "Tue, 25 Jan 2011 18:44:36 GMT")),
+            Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2025-12-01T00:00:00Z"));
+
+    @Test
+    void decode_shouldRestoreEncodedEntry_includingNullFields() {
+        assertThat(CachedUserCodec.decode(CachedUserCodec.encode(entry))).isEqualTo(entry);
+
+        CachedUser profileOnly = new CachedUser(new UserDto("octocat", null, null, null, null, null, null, null),
+                List.of(), List.of(), entry.fetchedAt());
+        assertThat(CachedUserCodec.decode(CachedUserCodec.encode(profileOnly))).isEqualTo(profileOnly);
+    }
+
+    @Test
+    void encode_shouldBeSmallerThanJson() throws Exception {
+        byte[] json = JsonMapper.builder().findAndAddModules().build().writeValueAsBytes(entry);
+
+        assertThat(CachedUserCodec.encode(entry).length).isLessThan(json.length * 2 / 3);
+    }
+
+    @Test
+    void decode_shouldReturnNull_forAnotherVersion() {
+        byte[] encoded = CachedUserCodec.encode(entry);
+        encoded[0] = 99;
+
+        assertThat(CachedUserCodec.decode(encoded)).isNull();
+    }
+}
@@ -0,0 +1,118 @@
+package com.brand.octocat.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final CircuitBreaker breaker = new CircuitBreaker("user", 3, Duration.ofSeconds(30), clock);
+
+    @Test
+    void shouldOpen_afterConsecutiveFailuresReachThreshold() {
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void shouldResetFailureCount_onSuccess() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldAllowSingleHalfOpenProbe_afterOpenDuration() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void shouldClose_whenProbeSucceeds() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        breaker.tryAcquirePermission();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void shouldReopen_whenProbeFails() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        breaker.tryAcquirePermission();
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.getTransitions()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldLetNextCallProbe_whenProbeIsReleased() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        breaker.tryAcquirePermission();
+
+        breaker.release();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    private void open() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskUserStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    private Path dir;
+
+    private final CachedUser entry = new CachedUser(
+            new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                    "Tue, 25 Jan 2011 18:44:36 GMT", List.of(new RepoDto("repo-1", "url-1"))),
+            List.of(new Validator("\"user-etag\"", null)),
+            List.of(new Validator("\"repos-etag\"", "Tue, 25 Jan 2011 18:44:36 GMT")),
+            NOW.minus(Duration.ofMinutes(5)));
+
+    @Test
+    void get_shouldReturnEntryWithMetadata_afterReopen() {
+        try (DiskUserStore store = store()) {
+            store.put("octocat", entry);
+        }
+
+        try (DiskUserStore restarted = store()) {
+            assertThat(restarted.get("octocat")).contains(entry);
+            assertThat(restarted.get("hubot")).isEmpty();
+        }
+    }
+
+    @Test
+    void get_shouldDropEntriesOlderThanRetention() {
+        try (DiskUserStore store = store()) {
+            store.put("octocat", entry);
+            store.put("old", new CachedUser(entry.user(), List.of(), List.of(), NOW.minus(Duration.ofHours(25))));
+            store.flush();
+
+            assertThat(store.get("old")).isEmpty();
+            assertThat(store.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void compact_shouldRemoveExpiredEntries() {
+        try (DiskUserStore store = store()) {
+            for (int i = 0; i < 10; i++) {
+                store.put("old-" + i, new CachedUser(entry.user(), List.of(), List.of(), NOW.minus(Duration.ofDays(2))));
+            }
+            store.put("octocat", entry);
+            store.flush();
+
+            store.compact();
+
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get("octocat")).contains(entry);
+        }
+    }
+
+    @Test
+    void shouldRunEmpty_whenFileIsHeldByAnotherStore() {
+        try (DiskUserStore owner = store(); DiskUserStore second = store()) {
+            owner.put("octocat", entry);
+
+            second.put("hubot", entry);
+            second.compact();
+
+            assertThat(second.get("octocat")).isEmpty();
+            assertThat(second.size()).isZero();
+        }
+    }
+
+    @Test
+    void bindTo_shouldExposeEntriesAndHits() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (DiskUserStore store = store()) {
+            store.bindTo(registry);
+            store.put("octocat", entry);
+            store.flush();
+            store.get("octocat");
+
+            assertThat(registry.get("github.cache.users.disk.entries").gauge().value()).isEqualTo(1);
+            assertThat(registry.get("github.cache.users.disk.hits").functionCounter().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void put_shouldBeReadableAtOnce_andEvictShouldDropPendingWrite() {
+        try (DiskUserStore store = store()) {
+            store.put("octocat", entry);
+            assertThat(store.get("octocat")).contains(entry);
+
+            store.evict("octocat");
+            store.flush();
+
+            assertThat(store.get("octocat")).isEmpty();
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    @Test
+    void put_shouldCoalescePendingWrites_ofTheSameUser() {
+        CachedUser refreshed = new CachedUser(entry.user(), List.of(), List.of(), NOW);
+        try (DiskUserStore store = store()) {
+            store.put("octocat", entry);
+            store.put("octocat", refreshed);
+            store.flush();
+
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get("octocat")).contains(refreshed);
+        }
+    }
+
+    private DiskUserStore store() {
+        DiskUserStore store = new DiskUserStore(dir.resolve("cache/users.mv"), Duration.ofHours(24));
+        ReflectionTestUtils.setField(store, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        return store;
+    }
+}
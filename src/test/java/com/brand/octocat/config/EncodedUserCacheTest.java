@@ -0,0 +1,121 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.config.EncodedUserCache.EncodedUser;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedUserCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final EncodedUserCache cache = new EncodedUserCache(objectMapper, true, DataSize.ofMegabytes(1),
+            DataSize.ofKilobytes(1));
+
+    @Test
+    void get_shouldReuseBody_forSameUserInstance() {
+        UserDto user = user(10);
+
+        EncodedUser first = cache.get(user, null);
+        EncodedUser second = cache.get(user, null);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void get_shouldReuseBody_forEqualUserFromAnotherTier() {
+        EncodedUser first = cache.get(user(10), null);
+        EncodedUser second = cache.get(user(10), null);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void get_shouldEncodeAgain_whenUserChanged() {
+        EncodedUser first = cache.get(user(10), null);
+        EncodedUser second = cache.get(user(11), null);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void get_shouldEncodeAgain_forNewContentHash() {
+        UserDto user = user(10);
+
+        EncodedUser first = cache.get(user, "0123456789abcdef0123456789abcdef");
+        EncodedUser second = cache.get(user, "fedcba9876543210fedcba9876543210");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(cache.get(user, "0123456789abcdef0123456789abcdef")).isSameAs(first);
+    }
+
+    @Test
+    void get_shouldDeriveETags_fromStoredContentHash() {
+        EncodedUser encoded = cache.get(user(100), "0123456789abcdef0123456789abcdef");
+
+        assertThat(encoded.etag()).isEqualTo("\"0123456789abcdef0123456789abcdef\"")
+                .isEqualTo(EncodedUserCache.etag("0123456789abcdef0123456789abcdef"));
+        assertThat(encoded.gzipEtag()).isEqualTo("\"0123456789abcdef0123456789abcdef-gzip\"");
+    }
+
+    @Test
+    void get_shouldMatchJacksonOutput_andGzipOnlyLargeBodies() throws IOException {
+        UserDto small = user(0);
+        UserDto large = user(100);
+
+        EncodedUser smallBody = cache.get(small, null);
+        EncodedUser largeBody = cache.get(large, null);
+
+        assertThat(smallBody.json()).isEqualTo(objectMapper.writeValueAsBytes(small));
+        assertThat(smallBody.gzip()).isNull();
+        assertThat(largeBody.gzip()).hasSizeLessThan(largeBody.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(largeBody.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(objectMapper.writeValueAsBytes(large));
+        }
+    }
+
+    @Test
+    void get_shouldSerialiseEachTime_whenDisabled() {
+        EncodedUserCache disabled = new EncodedUserCache(objectMapper, false, DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(1));
+        UserDto user = user(100);
+
+        EncodedUser first = disabled.get(user, null);
+
+        assertThat(disabled.get(user, null)).isNotSameAs(first);
+        assertThat(first.gzip()).isNull();
+    }
+
+    @Test
+    void bindTo_shouldPublishCacheStatistics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        UserDto user = user(1);
+
+        cache.get(user, null);
+        cache.get(user, null);
+
+        assertThat(registry.get("cache.gets").tag("cache", "users-encoded").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    private static UserDto user(int repoCount) {
+        List<RepoDto> repos = IntStream.range(0, repoCount)
+                .mapToObj(i -> new RepoDto("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList();
+        return new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", repos);
+    }
+}
@@ -0,0 +1,46 @@
+package com.brand.octocat.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledOnJre;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutorConfigTest {
+
+    private final ExecutorConfig config = new ExecutorConfig(16, 100, 4, 50, 8, 1000);
+
+    @Test
+    void githubExecutor_shouldBeBoundedPlatformPool_byDefault() {
+        AsyncTaskExecutor executor = config.githubExecutor(new MockEnvironment());
+
+        assertThat(executor).isInstanceOfSatisfying(ThreadPoolTaskExecutor.class,
+                pool -> assertThat(pool.getMaxPoolSize()).isEqualTo(16));
+    }
+
+    @Test
+    @EnabledOnJre(JRE.JAVA_17)
+    void githubExecutor_shouldIgnoreVirtualThreadsProperty_onJava17() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        assertThat(config.githubExecutor(environment)).isInstanceOf(ThreadPoolTaskExecutor.class);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void githubExecutor_shouldRunFetchesOnVirtualThreads_whenEnabled() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        AsyncTaskExecutor executor = config.githubExecutor(environment);
+        Thread thread = executor.submit(Thread::currentThread).get();
+
+        assertThat(executor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+        assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+        assertThat(thread.getName()).startsWith("github-fetch-");
+    }
+}
@@ -1,41 +1,73 @@
 package com.brand.octocat.config;
 
 import com.brand.octocat.error.UsernameNotFoundException;
-import com.brand.octocat.model.api.GithubRepoResponse;
+import com.brand.octocat.model.api.Conditional;
+import com.brand.octocat.model.api.GithubReposPage;
 import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.dto.RepoDto;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class GithubClientTest {
 
+    private static final String REPOS_PAGE_PATH = "/users/{username}/repos?per_page={perPage}&page={page}";
+
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    private ThreadPoolTaskExecutor executor;
+
     private GithubClient githubClient;
 
     @BeforeEach
     void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(3);
+        executor.setMaxPoolSize(3);
+        executor.initialize();
+
+        githubClient = new GithubClient(restTemplate, executor, new GithubResilience(
+                1, Duration.ofMillis(1), Duration.ofMillis(1), 0.1, 10, 5, Duration.ofSeconds(30)));
         // simulate @Value injection
         ReflectionTestUtils.setField(githubClient, "userPath", "/users/{username}");
         ReflectionTestUtils.setField(githubClient, "reposPath", "/users/{username}/repos");
+        ReflectionTestUtils.setField(githubClient, "reposPerPage", 100);
+        ReflectionTestUtils.setField(githubClient, "maxConcurrentPages", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
     }
 
     @Test
@@ -53,8 +85,8 @@ class GithubClientTest {
         );
 
         when(restTemplate
-                .getForObject("/users/{username}", GithubUserResponse.class, username))
-                .thenReturn(user);
+                .exchange("/users/{username}", HttpMethod.GET, null, GithubUserResponse.class, username))
+                .thenReturn(ResponseEntity.ok(user));
 
         GithubUserResponse result = githubClient.getUser(username);
 
@@ -65,7 +97,7 @@ class GithubClientTest {
     void getUser_shouldThrowUsernameNotFound_whenGithubReturns404() {
         String username = "missing";
 
-        when(restTemplate.getForObject("/users/{username}", GithubUserResponse.class, username))
+        when(restTemplate.exchange("/users/{username}", HttpMethod.GET, null, GithubUserResponse.class, username))
                 .thenThrow(HttpClientErrorException.NotFound.create(
                         HttpStatus.NOT_FOUND, null, null, null, null));
 
@@ -78,7 +110,7 @@ class GithubClientTest {
     void getUser_shouldRethrowRestClientException_whenOtherClientErrorOccurs() {
         String username = "octocat";
 
-        when(restTemplate.getForObject("/users/{username}", GithubUserResponse.class, username))
+        when(restTemplate.exchange("/users/{username}", HttpMethod.GET, null, GithubUserResponse.class, username))
                 .thenThrow(new RestClientException("GitHub timeout"));
 
         assertThatThrownBy(() -> githubClient.getUser(username))
@@ -90,15 +122,14 @@ class GithubClientTest {
     void getRepos_shouldReturnMappedList_whenGithubReturnsArray() {
         String username = "octocat";
 
-        GithubRepoResponse[] reposArray = new GithubRepoResponse[] {
-                new GithubRepoResponse("repo-1", "url-1"),
-                new GithubRepoResponse("repo-2", "url-2")
-        };
+        GithubReposPage reposPage = new GithubReposPage(List.of(
+                new RepoDto("repo-1", "url-1"),
+                new RepoDto("repo-2", "url-2")
+        ));
 
-        when(restTemplate.getForObject("/users/{username}/repos", GithubRepoResponse[].class, username))
-                .thenReturn(reposArray);
+        stubReposPage(username, 1, reposPage, new HttpHeaders());
 
-        List<GithubRepoResponse> result = githubClient.getRepos(username);
+        List<RepoDto> result = githubClient.getRepos(username);
 
         assertThat(result).hasSize(2);
         assertThat(result.get(0).name()).isEqualTo("repo-1");
@@ -109,12 +140,213 @@ class GithubClientTest {
     void getRepos_shouldReturnEmptyList_whenGithubReturnsNullBody() {
         String username = "octocat";
 
-        when(restTemplate
-                .getForObject("/users/{username}/repos", GithubRepoResponse[].class, username))
-                .thenReturn(null);
+        stubReposPage(username, 1, null, new HttpHeaders());
 
-        List<GithubRepoResponse> result = githubClient.getRepos(username);
+        List<RepoDto> result = githubClient.getRepos(username);
 
         assertThat(result).isEmpty();
     }
+
+    @Test
+    void getRepos_shouldFetchAllPagesInGithubOrder_whenLinkHeaderHasLastPage() {
+        String username = "octocat";
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK,
+                "<https://api.github.com/user/583231/repos?per_page=100&page=2>; rel=\"next\", "
+                        + "<https://api.github.com/user/583231/repos?per_page=100&page=6>; rel=\"last\"");
+
+        stubReposPage(username, 1, page(1), headers);
+        for (int page = 2; page <= 6; page++) {
+            int delayed = page;
+            when(restTemplate.exchange(REPOS_PAGE_PATH, HttpMethod.GET, null, GithubReposPage.class,
+                    username, 100, page))
+                    .thenAnswer(invocation -> {
+                        // later pages answer first to prove ordering does not depend on timing
+                        Thread.sleep(10L * (7 - delayed));
+                        return ResponseEntity.ok(page(delayed));
+                    });
+        }
+
+        List<RepoDto> result = githubClient.getRepos(username);
+
+        assertThat(result)
+                .extracting(RepoDto::name)
+                .containsExactly("repo-1", "repo-2", "repo-3", "repo-4", "repo-5", "repo-6");
+    }
+
+    @Test
+    void getRepos_shouldRethrow_whenAnyPageFails() {
+        String username = "octocat";
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<https://api.github.com/user/583231/repos?per_page=100&page=3>; rel=\"last\"");
+
+        stubReposPage(username, 1, page(1), headers);
+        stubReposPage(username, 2, page(2), new HttpHeaders());
+        when(restTemplate.exchange(REPOS_PAGE_PATH, HttpMethod.GET, null, GithubReposPage.class,
+                username, 100, 3))
+                .thenThrow(new RestClientException("GitHub timeout"));
+
+        assertThatThrownBy(() -> githubClient.getRepos(username))
+                .isInstanceOf(RestClientException.class)
+                .hasMessage("GitHub timeout");
+    }
+
+    @Test
+    void getUserConditionally_shouldReturnBodyAndValidator_whenGithubRespondsOk() {
+        String username = "octocat";
+        GithubUserResponse user = new GithubUserResponse("octocat", null, null, null, null, "url", null);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc\"");
+        headers.set(HttpHeaders.LAST_MODIFIED, "Tue, 25 Jan 2011 18:44:36 GMT");
+
+        when(restTemplate.exchange("/users/{username}", HttpMethod.GET, null, GithubUserResponse.class, username))
+                .thenReturn(new ResponseEntity<>(user, headers, HttpStatus.OK));
+
+        Conditional<GithubUserResponse> result = githubClient.getUser(username, List.of());
+
+        assertThat(result.notModified()).isFalse();
+        assertThat(result.body()).isSameAs(user);
+        assertThat(result.validators()).containsExactly(new Validator("\"abc\"", "Tue, 25 Jan 2011 18:44:36 GMT"));
+    }
+
+    @Test
+    void getUserConditionally_shouldSendValidators_andReportNotModified() {
+        String username = "octocat";
+        Validator validator = new Validator("\"abc\"", null);
+
+        when(restTemplate.exchange(eq("/users/{username}"), eq(HttpMethod.GET),
+                argThat((HttpEntity<?> entity) -> entity != null
+                        && entity.getHeaders().getIfNoneMatch().contains("\"abc\"")),
+                eq(GithubUserResponse.class), eq(username)))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        Conditional<GithubUserResponse> result = githubClient.getUser(username, List.of(validator));
+
+        assertThat(result.notModified()).isTrue();
+        assertThat(result.body()).isNull();
+    }
+
+    @Test
+    void getReposConditionally_shouldReportNotModified_whenEveryPageIsUnchanged() {
+        String username = "octocat";
+        List<Validator> validators = List.of(new Validator("\"p1\"", null), new Validator("\"p2\"", null));
+
+        for (int page = 1; page <= 2; page++) {
+            String etag = validators.get(page - 1).etag();
+            when(restTemplate.exchange(eq(REPOS_PAGE_PATH), eq(HttpMethod.GET),
+                    argThat((HttpEntity<?> entity) -> entity != null
+                            && entity.getHeaders().getIfNoneMatch().contains(etag)),
+                    eq(GithubReposPage.class), eq(username), eq(100), eq(page)))
+                    .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        }
+
+        Conditional<List<RepoDto>> result = githubClient.getRepos(username, validators, repos(150));
+
+        assertThat(result.notModified()).isTrue();
+    }
+
+    @Test
+    void getReposConditionally_shouldReuseUnchangedPages_andReadOnlyChangedOnes() {
+        String username = "octocat";
+        List<Validator> validators = List.of(new Validator("\"p1\"", null), new Validator("\"p2\"", null));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"p2-new\"");
+
+        stubConditionalPage(username, 1, "\"p1\"", ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        stubConditionalPage(username, 2, "\"p2\"", new ResponseEntity<>(page(2), headers, HttpStatus.OK));
+
+        Conditional<List<RepoDto>> result = githubClient.getRepos(username, validators, repos(150));
+
+        assertThat(result.notModified()).isFalse();
+        assertThat(result.body()).hasSize(101);
+        assertThat(result.body().subList(0, 100)).isEqualTo(repos(150).subList(0, 100));
+        assertThat(result.body().get(100).name()).isEqualTo("repo-2");
+        assertThat(result.validators()).containsExactly(validators.get(0), new Validator("\"p2-new\"", null));
+        verify(restTemplate, never()).exchange(REPOS_PAGE_PATH, HttpMethod.GET, null, GithubReposPage.class,
+                username, 100, 1);
+    }
+
+    @Test
+    void getReposConditionally_shouldPickUpNewPage_whenLastKnownPageWasFull() {
+        String username = "octocat";
+        List<Validator> validators = List.of(new Validator("\"p1\"", null));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"p2\"");
+
+        stubConditionalPage(username, 1, "\"p1\"", ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        when(restTemplate.exchange(REPOS_PAGE_PATH, HttpMethod.GET, null, GithubReposPage.class,
+                username, 100, 2))
+                .thenReturn(new ResponseEntity<>(page(2), headers, HttpStatus.OK));
+
+        Conditional<List<RepoDto>> result = githubClient.getRepos(username, validators, repos(100));
+
+        assertThat(result.notModified()).isFalse();
+        assertThat(result.body()).hasSize(101);
+        assertThat(result.body().get(100).name()).isEqualTo("repo-2");
+        assertThat(result.validators()).containsExactly(validators.get(0), new Validator("\"p2\"", null));
+    }
+
+    @Test
+    void getReposConditionally_shouldKeepEmptyProbe_asKnownPage() {
+        String username = "octocat";
+        List<Validator> validators = List.of(new Validator("\"p1\"", null));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"empty\"");
+
+        stubConditionalPage(username, 1, "\"p1\"", ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        when(restTemplate.exchange(REPOS_PAGE_PATH, HttpMethod.GET, null, GithubReposPage.class,
+                username, 100, 2))
+                .thenReturn(new ResponseEntity<>(new GithubReposPage(List.of()), headers, HttpStatus.OK));
+
+        Conditional<List<RepoDto>> result = githubClient.getRepos(username, validators, repos(100));
+
+        assertThat(result.body()).isEqualTo(repos(100));
+        assertThat(result.validators()).containsExactly(validators.get(0), new Validator("\"empty\"", null));
+    }
+
+    @Test
+    void forEachReposPage_shouldHandOverEachPageBeforeFetchingTheNext() {
+        String username = "octocat";
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<https://api.github.com/user/583231/repos?per_page=100&page=3>; rel=\"last\"");
+        List<String> events = new ArrayList<>();
+
+        stubReposPage(username, 1, page(1), headers);
+        for (int page = 2; page <= 3; page++) {
+            int fetched = page;
+            when(restTemplate.exchange(REPOS_PAGE_PATH, HttpMethod.GET, null, GithubReposPage.class,
+                    username, 100, page))
+                    .thenAnswer(invocation -> {
+                        events.add("fetch-" + fetched);
+                        return ResponseEntity.ok(page(fetched));
+                    });
+        }
+
+        githubClient.forEachReposPage(username, repos -> events.add("consume-" + repos.get(0).name()));
+
+        assertThat(events).containsExactly("consume-repo-1", "fetch-2", "consume-repo-2", "fetch-3", "consume-repo-3");
+    }
+
+    private void stubConditionalPage(String username, int page, String etag,
+                                     ResponseEntity<GithubReposPage> response) {
+        when(restTemplate.exchange(eq(REPOS_PAGE_PATH), eq(HttpMethod.GET),
+                argThat((HttpEntity<?> entity) -> entity != null
+                        && entity.getHeaders().getIfNoneMatch().contains(etag)),
+                eq(GithubReposPage.class), eq(username), eq(100), eq(page)))
+                .thenReturn(response);
+    }
+
+    private static List<RepoDto> repos(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> new RepoDto("cached-" + i, "url-" + i)).toList();
+    }
+
+    private void stubReposPage(String username, int page, GithubReposPage body, HttpHeaders headers) {
+        when(restTemplate.exchange(REPOS_PAGE_PATH, HttpMethod.GET, null, GithubReposPage.class,
+                username, 100, page))
+                .thenReturn(new ResponseEntity<>(body, headers, HttpStatus.OK));
+    }
+
+    private static GithubReposPage page(int number) {
+        return new GithubReposPage(List.of(new RepoDto("repo-" + number, "url-" + number)));
+    }
 }
@@ -0,0 +1,141 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.dto.RepoDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GithubGraphqlClientTest {
+
+    private static final String USER_FIELDS = """
+            "login":"octocat","name":"The Octocat","avatarUrl":"avatar-url","location":"San Francisco",
+            "email":"","createdAt":"2011-01-25T18:44:36Z\"""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private GithubGraphqlClient client;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphql", this::handle);
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        RestTemplate restTemplate = new RestTemplateBuilder().rootUri(baseUrl).build();
+        GithubResilience resilience = new GithubResilience(1, Duration.ofMillis(1), Duration.ofMillis(1), 0.1, 10, 2,
+                Duration.ofSeconds(30));
+        client = new GithubGraphqlClient(restTemplate, resilience, baseUrl, "/graphql", "test-token", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void getUserWithRepos_shouldFollowCursors_andShapeResultsLikeRest() {
+        GithubGraphqlClient.UserWithRepos result = client.getUserWithRepos("octocat");
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        assertThat(result.user().login()).isEqualTo("octocat");
+        assertThat(result.user().name()).isEqualTo("The Octocat");
+        assertThat(result.user().email()).isNull();
+        assertThat(result.user().url()).isEqualTo(baseUrl + "/users/octocat");
+        assertThat(result.user().createdAt()).isEqualTo(OffsetDateTime.parse("2011-01-25T18:44:36Z"));
+        assertThat(result.repos()).containsExactly(
+                new RepoDto("repo-1", baseUrl + "/repos/octocat/repo-1"),
+                new RepoDto("repo-2", baseUrl + "/repos/octocat/repo-2"),
+                new RepoDto("repo-3", baseUrl + "/repos/octocat/repo-3"));
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(0).at("/variables/first").asInt()).isEqualTo(2);
+        assertThat(requests.get(0).at("/variables/after").isNull()).isTrue();
+        assertThat(requests.get(1).at("/variables/after").asText()).isEqualTo("cursor-2");
+        assertThat(authorizations).containsOnly("Bearer test-token");
+    }
+
+    @Test
+    void getUser_shouldQueryProfileOnly() {
+        assertThat(client.getUser("octocat").login()).isEqualTo("octocat");
+
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0).get("query").asText()).isEqualTo(GithubGraphqlClient.PROFILE_QUERY);
+        assertThat(requests.get(0).at("/variables/first").isMissingNode()).isTrue();
+    }
+
+    @Test
+    void getUserWithRepos_shouldThrowUsernameNotFound_whenUserDoesNotExist() {
+        assertThatThrownBy(() -> client.getUserWithRepos("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void getUserWithRepos_shouldThrowRestClientException_onOtherQueryErrors() {
+        assertThatThrownBy(() -> client.getUserWithRepos("broken"))
+                .isInstanceOf(RestClientException.class)
+                .isNotInstanceOf(UsernameNotFoundException.class)
+                .hasMessageContaining("Something went wrong");
+    }
+
+    @Test
+    void constructor_shouldRequireToken() {
+        assertThatThrownBy(() -> new GithubGraphqlClient(new RestTemplate(), null, "http://localhost", "/graphql", "",
+                100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("github.token");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        requests.add(request);
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+
+        String login = request.at("/variables/login").asText();
+        String body = switch (login) {
+            case "ghost" -> """
+                    {"data":{"user":null},"errors":[{"type":"NOT_FOUND","message":"Could not resolve to a User"}]}""";
+            case "broken" -> """
+                    {"data":null,"errors":[{"message":"Something went wrong"}]}""";
+            default -> request.at("/variables/after").isNull()
+                    ? userPage("true", "cursor-2", "{\"name\":\"repo-1\",\"nameWithOwner\":\"octocat/repo-1\"},"
+                            + "{\"name\":\"repo-2\",\"nameWithOwner\":\"octocat/repo-2\"}")
+                    : userPage("false", "cursor-3", "{\"name\":\"repo-3\",\"nameWithOwner\":\"octocat/repo-3\"}");
+        };
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String userPage(String hasNextPage, String endCursor, String nodes) {
+        return "{\"data\":{\"user\":{" + USER_FIELDS + ",\"repositories\":{\"pageInfo\":{\"hasNextPage\":"
+                + hasNextPage + ",\"endCursor\":\"" + endCursor + "\"},\"nodes\":[" + nodes + "]}}}}";
+    }
+}
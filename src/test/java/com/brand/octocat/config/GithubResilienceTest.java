@@ -0,0 +1,184 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.CircuitOpenException;
+import com.brand.octocat.error.RateLimitExceededException;
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.api.GithubUserResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises retries and the circuit breaker end to end against a local stub of the GitHub API.
+ */
+class GithubResilienceTest {
+
+    private static final String USER_JSON = "{\"login\":\"octocat\",\"url\":\"https://api.github.com/users/octocat\"}";
+
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private HttpServer server;
+    private GithubResilience resilience;
+    private GithubClient client;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users/", exchange -> {
+            hits.incrementAndGet();
+            Integer status = statuses.poll();
+            int code = status == null ? 200 : status;
+            byte[] body = (code == 200 ? USER_JSON : "{\"message\":\"error\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(code, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        resilience = new GithubResilience(3, Duration.ofMillis(1), Duration.ofMillis(5), 0.1, 10, 4,
+                Duration.ofMillis(200));
+        HttpTransportConfig transport = new HttpTransportConfig(false, 10, 10, Duration.ofSeconds(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(5));
+        client = new GithubClient(new RestTemplateBuilder()
+                .rootUri("http://localhost:" + server.getAddress().getPort())
+                .requestFactory(transport::githubRequestFactory)
+                .build(), new SyncTaskExecutor(), resilience);
+        ReflectionTestUtils.setField(client, "userPath", "/users/{username}");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldRetryTransient5xx_andSucceed() {
+        statuses.add(502);
+        statuses.add(503);
+
+        GithubUserResponse user = client.getUser("octocat");
+
+        assertThat(user.login()).isEqualTo("octocat");
+        assertThat(hits).hasValue(3);
+        assertThat(resilience.breaker(GithubResilience.USER_ENDPOINT).getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldGiveUp_afterMaxAttempts() {
+        statuses.add(500);
+        statuses.add(500);
+        statuses.add(500);
+
+        assertThatThrownBy(() -> client.getUser("octocat"))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThat(hits).hasValue(3);
+    }
+
+    @Test
+    void shouldNotRetry_clientErrors() {
+        statuses.add(404);
+
+        assertThatThrownBy(() -> client.getUser("missing"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThat(hits).hasValue(1);
+    }
+
+    @Test
+    void shouldOpenCircuit_andFailFast_thenCloseAfterSuccessfulProbe() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            statuses.add(503);
+        }
+
+        assertThatThrownBy(() -> client.getUser("octocat")).isInstanceOf(HttpServerErrorException.class);
+        assertThatThrownBy(() -> client.getUser("octocat")).isInstanceOf(CircuitOpenException.class);
+        assertThat(hits).hasValue(4);
+        assertThat(resilience.breaker(GithubResilience.USER_ENDPOINT).getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(250);
+
+        assertThat(client.getUser("octocat").login()).isEqualTo("octocat");
+        assertThat(resilience.breaker(GithubResilience.USER_ENDPOINT).getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldStopRetrying_whenRetryBudgetIsSpent() {
+        resilience = new GithubResilience(3, Duration.ofMillis(1), Duration.ofMillis(5), 0.0, 1, 100,
+                Duration.ofMillis(200));
+        ReflectionTestUtils.setField(client, "resilience", resilience);
+        for (int i = 0; i < 6; i++) {
+            statuses.add(503);
+        }
+
+        assertThatThrownBy(() -> client.getUser("octocat")).isInstanceOf(HttpServerErrorException.class);
+        assertThatThrownBy(() -> client.getUser("octocat")).isInstanceOf(HttpServerErrorException.class);
+
+        assertThat(hits).hasValue(3);
+    }
+
+    @Test
+    void shouldReleaseProbe_whenItEndsInError() throws Exception {
+        CircuitBreaker breaker = resilience.breaker(GithubResilience.USER_ENDPOINT);
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        Thread.sleep(250);
+
+        assertThatThrownBy(() -> resilience.execute(GithubResilience.USER_ENDPOINT, () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+
+        assertThat(resilience.execute(GithubResilience.USER_ENDPOINT, () -> "ok")).isEqualTo("ok");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldNotCountLocalRateLimitErrors_towardsTheBreaker() {
+        CircuitBreaker breaker = resilience.breaker(GithubResilience.USER_ENDPOINT);
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+
+        assertThatThrownBy(() -> resilience.execute(GithubResilience.USER_ENDPOINT, () -> {
+            throw new RateLimitExceededException(Duration.ofMinutes(1));
+        })).isInstanceOf(RateLimitExceededException.class);
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void bindTo_shouldExposeBreakerStateAndRetries() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        resilience.bindTo(registry);
+        statuses.add(502);
+
+        client.getUser("octocat");
+
+        assertThat(registry.get("github.retries").counter().count()).isEqualTo(1);
+        assertThat(registry.get("github.circuit.state").tag("endpoint", "user").gauge().value()).isZero();
+    }
+}
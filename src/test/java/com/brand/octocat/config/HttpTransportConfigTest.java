@@ -0,0 +1,32 @@
+package com.brand.octocat.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpTransportConfigTest {
+
+    @Test
+    void githubRequestFactory_shouldUsePooledApacheClient_byDefault() {
+        ClientHttpRequestFactory requestFactory = config(false).githubRequestFactory();
+
+        assertThat(requestFactory).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+    }
+
+    @Test
+    void githubRequestFactory_shouldUseJdkClient_whenHttp2Enabled() {
+        ClientHttpRequestFactory requestFactory = config(true).githubRequestFactory();
+
+        assertThat(requestFactory).isInstanceOf(JdkClientHttpRequestFactory.class);
+    }
+
+    private static HttpTransportConfig config(boolean http2) {
+        return new HttpTransportConfig(http2, 100, 50, Duration.ofSeconds(2), Duration.ofSeconds(5),
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(5));
+    }
+}
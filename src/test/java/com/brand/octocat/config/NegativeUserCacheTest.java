@@ -0,0 +1,110 @@
+package com.brand.octocat.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NegativeUserCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    @Test
+    void exact_shouldRememberMissingUsers_caseInsensitively_untilTtl() {
+        NegativeUserCache cache = new NegativeUserCache(NegativeUserCache.Mode.EXACT, Duration.ofMinutes(5), 100, 0.01, clock);
+
+        cache.recordMissing("Missing");
+
+        assertThat(cache.isKnownMissing("missing")).isTrue();
+        assertThat(cache.isKnownMissing("octocat")).isFalse();
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(cache.isKnownMissing("missing")).isFalse();
+    }
+
+    @Test
+    void bloom_shouldRememberMissingUsers_andForgetThemWithinTtl() {
+        NegativeUserCache cache = new NegativeUserCache(NegativeUserCache.Mode.BLOOM, Duration.ofMinutes(10), 1_000, 0.01, clock);
+
+        cache.recordMissing("missing");
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(cache.isKnownMissing("MISSING")).isTrue();
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(cache.isKnownMissing("missing")).isFalse();
+    }
+
+    @Test
+    void bloom_shouldKeepFalsePositivesLow_underAFloodOfRandomNames() {
+        NegativeUserCache cache = new NegativeUserCache(NegativeUserCache.Mode.BLOOM, Duration.ofMinutes(10), 1_000, 0.01, clock);
+
+        IntStream.range(0, 100_000).forEach(i -> cache.recordMissing("bot-" + i));
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> cache.isKnownMissing("user-" + i))
+                .count();
+
+        // two generations at capacity give at most about twice the configured rate
+        assertThat(falsePositives).isLessThan(300);
+        assertThat(cache.isKnownMissing("bot-99999")).isTrue();
+    }
+
+    @Test
+    void off_shouldNeverRememberUsers() {
+        NegativeUserCache cache = new NegativeUserCache(NegativeUserCache.Mode.OFF, Duration.ofMinutes(5), 100, 0.01, clock);
+
+        cache.recordMissing("missing");
+
+        assertThat(cache.isKnownMissing("missing")).isFalse();
+    }
+
+    @Test
+    void bindTo_shouldExposeHitsAndEntries() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        NegativeUserCache cache = new NegativeUserCache(NegativeUserCache.Mode.EXACT, Duration.ofMinutes(5), 100, 0.01, clock);
+        cache.bindTo(registry);
+
+        cache.recordMissing("missing");
+        cache.isKnownMissing("missing");
+
+        assertThat(registry.get("github.cache.users.not-found.hits").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("github.cache.users.not-found.entries").gauge().value()).isEqualTo(1);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
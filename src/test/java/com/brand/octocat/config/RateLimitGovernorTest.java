@@ -0,0 +1,219 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitGovernorTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final HttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("/users/octocat"));
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    private RateLimitGovernor governor;
+
+    @BeforeEach
+    void setup() {
+        // a reserve of 100 calls out of 5000
+        governor = new RateLimitGovernor(0.02, "rest");
+        ReflectionTestUtils.setField(governor, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void intercept_shouldTrackRemainingBudget_fromResponseHeaders() throws Exception {
+        when(execution.execute(any(), any())).thenReturn(response(HttpStatus.OK, 4321, 5000, NOW.plusSeconds(600)));
+
+        governor.intercept(request, new byte[0], execution);
+
+        assertThat(governor.getRemaining(RateLimitGovernor.CORE)).isEqualTo(4321);
+        assertThat(governor.allowsBackgroundWork()).isTrue();
+    }
+
+    @Test
+    void intercept_shouldFailFastLocally_onceBudgetIsExhausted() throws Exception {
+        when(execution.execute(any(), any())).thenReturn(response(HttpStatus.OK, 0, 5000, NOW.plusSeconds(600)));
+        governor.intercept(request, new byte[0], execution);
+
+        assertThatThrownBy(() -> governor.intercept(request, new byte[0], execution))
+                .isInstanceOf(RateLimitExceededException.class)
+                .extracting(ex -> ((RateLimitExceededException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(600));
+        verify(execution, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void intercept_shouldAllowCalls_afterResetTimePassed() {
+        governor.update(RateLimitGovernor.CORE, 200, headers(0, 5000, NOW.minusSeconds(1)));
+
+        governor.checkBudget(RateLimitGovernor.CORE);
+
+        assertThat(governor.allowsBackgroundWork()).isTrue();
+    }
+
+    @Test
+    void intercept_shouldTranslateThrottledResponse_andHonourRetryAfter() throws Exception {
+        MockClientHttpResponse throttled = new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS);
+        throttled.getHeaders().set(HttpHeaders.RETRY_AFTER, "30");
+        when(execution.execute(any(), any())).thenReturn(throttled);
+
+        assertThatThrownBy(() -> governor.intercept(request, new byte[0], execution))
+                .isInstanceOf(RateLimitExceededException.class)
+                .extracting(ex -> ((RateLimitExceededException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> governor.checkBudget(RateLimitGovernor.CORE)).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void allowsBackgroundWork_shouldBeFalse_whenBudgetAtReserve() {
+        governor.update(RateLimitGovernor.CORE, 200, headers(100, 5000, NOW.plusSeconds(600)));
+
+        assertThat(governor.allowsBackgroundWork()).isFalse();
+    }
+
+    @Test
+    void backgroundBudget_shouldBeWhatIsLeftAboveReserve() {
+        assertThat(governor.backgroundBudget()).isEqualTo(-1);
+
+        governor.update(RateLimitGovernor.CORE, 200, headers(250, 5000, NOW.plusSeconds(600)));
+        assertThat(governor.backgroundBudget()).isEqualTo(150);
+
+        governor.update(RateLimitGovernor.CORE, 200, headers(80, 5000, NOW.plusSeconds(600)));
+        assertThat(governor.backgroundBudget()).isZero();
+
+        governor.update(RateLimitGovernor.CORE, 200, headers(80, 5000, NOW.minusSeconds(1)));
+        assertThat(governor.backgroundBudget()).isEqualTo(4900);
+    }
+
+    @Test
+    void reserve_shouldScaleWithLimit_forUnauthenticatedBudget() {
+        RateLimitGovernor unauthenticated = new RateLimitGovernor(0.1, "rest");
+        ReflectionTestUtils.setField(unauthenticated, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+
+        unauthenticated.update(RateLimitGovernor.CORE, 200, headers(60, 60, NOW.plusSeconds(3600)));
+        assertThat(unauthenticated.backgroundBudget()).isEqualTo(54);
+        assertThat(unauthenticated.allowsBackgroundWork()).isTrue();
+
+        unauthenticated.update(RateLimitGovernor.CORE, 200, headers(6, 60, NOW.plusSeconds(3600)));
+        assertThat(unauthenticated.backgroundBudget()).isZero();
+        assertThat(unauthenticated.allowsBackgroundWork()).isFalse();
+    }
+
+    @Test
+    void checkBudget_shouldNotCallGithub_whenExhausted() throws Exception {
+        governor.update(RateLimitGovernor.CORE, 200, headers(0, 5000, NOW.plusSeconds(60)));
+
+        assertThatThrownBy(() -> governor.intercept(request, new byte[0], execution))
+                .isInstanceOf(RateLimitExceededException.class);
+        verify(execution, never()).execute(any(), any());
+    }
+
+    @Test
+    void checkBudget_shouldGateEachResource_onItsOwnBucket() throws Exception {
+        HttpHeaders graphqlExhausted = headers(0, 5000, NOW.plusSeconds(60));
+        graphqlExhausted.set(RateLimitGovernor.RESOURCE, "graphql");
+        when(execution.execute(any(), any())).thenReturn(response(HttpStatus.OK, 4000, 5000, NOW.plusSeconds(60)));
+        governor.update(RateLimitGovernor.CORE, 200, graphqlExhausted);
+
+        governor.intercept(request, new byte[0], execution);
+
+        HttpRequest graphql = new MockClientHttpRequest(HttpMethod.POST, URI.create("/graphql"));
+        assertThatThrownBy(() -> governor.intercept(graphql, new byte[0], execution))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(governor.getRemaining(RateLimitGovernor.CORE)).isEqualTo(4000);
+        assertThat(governor.getRemaining(RateLimitGovernor.GRAPHQL)).isZero();
+        verify(execution, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void backgroundBudget_shouldFollowBucketOfConfiguredUpstream() {
+        RateLimitGovernor graphqlUpstream = new RateLimitGovernor(0.02, "graphql");
+        ReflectionTestUtils.setField(graphqlUpstream, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        graphqlUpstream.update(RateLimitGovernor.CORE, 200, headers(50, 5000, NOW.plusSeconds(600)));
+        graphqlUpstream.update(RateLimitGovernor.GRAPHQL, 200, headers(1000, 5000, NOW.plusSeconds(600)));
+
+        assertThat(graphqlUpstream.backgroundBudget()).isEqualTo(900);
+        assertThat(graphqlUpstream.allowsBackgroundWork()).isTrue();
+    }
+
+    @Test
+    void exchangeFilter_shouldTranslateThrottledResponse_andFailFastAfterwards() {
+        AtomicInteger calls = new AtomicInteger();
+        ExchangeFunction github = request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN)
+                    .headers(headers -> headers.addAll(headers(0, 5000, NOW.plusSeconds(120))))
+                    .build());
+        };
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("/users/octocat")).build();
+        ExchangeFilterFunction filter = governor.exchangeFilter();
+
+        assertThatThrownBy(() -> filter.filter(request, github).block())
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatThrownBy(() -> filter.filter(request, github).block())
+                .isInstanceOf(RateLimitExceededException.class)
+                .extracting(ex -> ((RateLimitExceededException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(120));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void bindTo_shouldExposeRemainingBudgetGauge() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        governor.bindTo(registry);
+        governor.update(RateLimitGovernor.CORE, 200, headers(4000, 5000, NOW.plusSeconds(600)));
+
+        assertThat(registry.get("github.ratelimit.remaining").tag("resource", "core").gauge().value()).isEqualTo(4000);
+        assertThat(registry.get("github.ratelimit.limit").tag("resource", "core").gauge().value()).isEqualTo(5000);
+    }
+
+    private static MockClientHttpResponse response(HttpStatus status, long remaining, long limit, Instant reset) {
+        MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], status);
+        response.getHeaders().addAll(headers(remaining, limit, reset));
+        return response;
+    }
+
+    private static HttpHeaders headers(long remaining, long limit, Instant reset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitGovernor.REMAINING, String.valueOf(remaining));
+        headers.set(RateLimitGovernor.LIMIT, String.valueOf(limit));
+        headers.set(RateLimitGovernor.RESET, String.valueOf(reset.getEpochSecond()));
+        return headers;
+    }
+}
@@ -0,0 +1,219 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.dto.RepoDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveGithubClientTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveGithubClientTest.class);
+
+    private static final String USER_JSON = "{\"login\":\"octocat\",\"url\":\"https://api.github.com/users/octocat\"}";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private volatile long delayMillis;
+
+    private HttpServer server;
+    private GithubResilience resilience;
+    private ReactiveGithubClient client;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 200);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/users/", this::handle);
+        server.start();
+
+        resilience = new GithubResilience(1, Duration.ofMillis(1), Duration.ofMillis(1), 0.1, 10, 2,
+                Duration.ofSeconds(30));
+        WebClientConfig config = new WebClientConfig(baseUrl(), 100, Duration.ofSeconds(1), Duration.ofSeconds(5),
+                Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(5), "");
+        WebClient webClient = config.githubWebClient(WebClient.builder(), new RateLimitGovernor(0.1, "rest"));
+
+        client = new ReactiveGithubClient(webClient, resilience);
+        // simulate @Value injection
+        ReflectionTestUtils.setField(client, "userPath", "/users/{username}");
+        ReflectionTestUtils.setField(client, "reposPath", "/users/{username}/repos");
+        ReflectionTestUtils.setField(client, "reposPerPage", 100);
+        ReflectionTestUtils.setField(client, "maxConcurrentPages", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void getUser_shouldReturnUser_whenGithubRespondsOk() {
+        GithubUserResponse user = client.getUser("octocat").block();
+
+        assertThat(user.login()).isEqualTo("octocat");
+    }
+
+    @Test
+    void getUser_shouldThrowUsernameNotFound_whenGithubReturns404() {
+        assertThatThrownBy(() -> client.getUser("missing").block())
+                .isInstanceOf(UsernameNotFoundException.class)
+                .hasMessage("GitHub user not found: missing");
+        assertThat(resilience.breaker(GithubResilience.USER_ENDPOINT).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void getUser_shouldMapServerErrorsToRestClientException_andOpenCircuit() {
+        assertThatThrownBy(() -> client.getUser("down").block()).isInstanceOf(RestClientException.class);
+        assertThatThrownBy(() -> client.getUser("down").block()).isInstanceOf(RestClientException.class);
+
+        assertThat(resilience.breaker(GithubResilience.USER_ENDPOINT).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void getUser_shouldKeepConnectionFailureAsCause() {
+        WebClientConfig config = new WebClientConfig("http://localhost:1", 100, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(5), "");
+        ReactiveGithubClient unreachable = new ReactiveGithubClient(
+                config.githubWebClient(WebClient.builder(), new RateLimitGovernor(0.1, "rest")), resilience);
+        // simulate @Value injection
+        ReflectionTestUtils.setField(unreachable, "userPath", "/users/{username}");
+
+        assertThatThrownBy(() -> unreachable.getUser("octocat").block())
+                .isInstanceOf(ResourceAccessException.class)
+                .hasCauseInstanceOf(WebClientRequestException.class);
+    }
+
+    @Test
+    void getRepos_shouldFetchAllPagesInGithubOrder() {
+        List<RepoDto> repos = client.getRepos("octocat").block();
+
+        assertThat(repos).containsExactly(
+                new RepoDto("repo-1", "url-1"), new RepoDto("repo-2", "url-2"), new RepoDto("repo-3", "url-3"));
+    }
+
+    /**
+     * Load comparison at a fixed number of caller threads: the blocking client can only keep
+     * one upstream request in flight per thread, while the reactive client keeps every
+     * request in flight from a single thread.
+     */
+    @Test
+    void inFlightCapacity_shouldNotBeBoundByCallerThreads_whenReactive() throws Exception {
+        int requests = 40;
+        int callerThreads = 4;
+        delayMillis = 200;
+
+        GithubClient blocking = blockingClient();
+        ExecutorService callers = Executors.newFixedThreadPool(callerThreads);
+        long blockingStart = System.nanoTime();
+        try {
+            List<Future<GithubUserResponse>> futures = IntStream.range(0, requests)
+                    .mapToObj(i -> callers.submit(() -> blocking.getUser("octocat")))
+                    .toList();
+            for (Future<GithubUserResponse> future : futures) {
+                future.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+        long blockingMillis = Duration.ofNanos(System.nanoTime() - blockingStart).toMillis();
+        int blockingPeak = peakInFlight.getAndSet(0);
+
+        long reactiveStart = System.nanoTime();
+        List<GithubUserResponse> users = Flux.range(0, requests)
+                .flatMap(i -> client.getUser("octocat"), requests)
+                .collectList()
+                .block();
+        long reactiveMillis = Duration.ofNanos(System.nanoTime() - reactiveStart).toMillis();
+        int reactivePeak = peakInFlight.get();
+
+        log.info("{} requests on {} caller threads: blocking peak {} in flight in {}ms, reactive peak {} in flight in {}ms",
+                requests, callerThreads, blockingPeak, blockingMillis, reactivePeak, reactiveMillis);
+
+        assertThat(users).hasSize(requests);
+        assertThat(blockingPeak).isLessThanOrEqualTo(callerThreads);
+        assertThat(reactivePeak).isGreaterThan(callerThreads * 2);
+        assertThat(reactiveMillis).isLessThan(blockingMillis);
+    }
+
+    private GithubClient blockingClient() {
+        HttpTransportConfig transport = new HttpTransportConfig(false, 100, 100, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(5));
+        GithubClient blocking = new GithubClient(new RestTemplateBuilder()
+                .rootUri(baseUrl())
+                .requestFactory(transport::githubRequestFactory)
+                .build(), new SyncTaskExecutor(), resilience);
+        ReflectionTestUtils.setField(blocking, "userPath", "/users/{username}");
+        return blocking;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        int code = 200;
+        String body = USER_JSON;
+
+        if (path.endsWith("/repos")) {
+            int page = Integer.parseInt(query.replaceAll(".*page=(\\d+).*", "$1"));
+            body = "[{\"id\":" + page + ",\"owner\":{\"login\":\"octocat\",\"url\":\"owner-url\"},"
+                    + "\"name\":\"repo-" + page + "\",\"topics\":[\"java\"],\"url\":\"url-" + page + "\"}]";
+            exchange.getResponseHeaders().set("Link", "<" + baseUrl() + path + "?per_page=100&page=3>; rel=\"last\"");
+        } else if (path.endsWith("/missing")) {
+            code = 404;
+            body = "{\"message\":\"Not Found\"}";
+        } else if (path.endsWith("/down")) {
+            code = 503;
+            body = "{\"message\":\"error\"}";
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,55 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.UserDto;
+import io.lettuce.core.RedisConnectionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Starts the application against a Redis nobody listens on.
+ */
+@SpringBootTest(properties = {
+        "github.cache.users.shared.backend=redis",
+        "github.cache.users.shared.redis-uri=redis://localhost:1",
+        "github.cache.users.shared.redis-reconnect-interval=1h"
+})
+class RedisSharedUserStoreTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SharedUserStore sharedUserStore;
+
+    @Test
+    void context_shouldStartAndServeFromNearCache_whenRedisIsDown() {
+        Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        CachedUser cached = new CachedUser(new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null,
+                "url", "Tue, 25 Jan 2011 18:44:36 GMT", List.of()), List.of(), List.of(), Instant.now());
+
+        users.put("octocat", cached);
+
+        assertThat(users.get("octocat", CachedUser.class)).isEqualTo(cached);
+        assertThat(users.get("someone-else")).isNull();
+        assertThat(((RedisSharedUserStore) sharedUserStore).isConnected()).isFalse();
+    }
+
+    @Test
+    void commands_shouldFailAtOnce_whileDisconnected() {
+        assertThatThrownBy(() -> sharedUserStore.get("octocat")).isInstanceOf(RedisConnectionException.class);
+        assertThatThrownBy(() -> sharedUserStore.publish("node")).isInstanceOf(RedisConnectionException.class);
+        assertThatThrownBy(() -> sharedUserStore.tryLease("octocat", Duration.ofSeconds(10)))
+                .isInstanceOf(RedisConnectionException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.brand.octocat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ResponseSizeInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setup() {
+        ResponseSizeInterceptor interceptor = new ResponseSizeInterceptor();
+        interceptor.bindTo(registry);
+        restTemplate.getInterceptors().add(interceptor);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void intercept_shouldRecordBodySize_perEndpoint() {
+        String userBody = "{\"login\":\"octocat\"}";
+        server.expect(requestTo("https://api.github.com/users/octocat"))
+                .andRespond(withSuccess(userBody, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://api.github.com/users/octocat/repos?per_page=100&page=1"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        restTemplate.getForObject("https://api.github.com/users/octocat", String.class);
+        restTemplate.getForObject("https://api.github.com/users/octocat/repos?per_page=100&page=1", String.class);
+
+        DistributionSummary user = summary(GithubResilience.USER_ENDPOINT);
+        DistributionSummary repos = summary(GithubResilience.REPOS_ENDPOINT);
+        assertThat(user.count()).isEqualTo(1);
+        assertThat(user.totalAmount()).isEqualTo(userBody.length());
+        assertThat(repos.count()).isEqualTo(1);
+        assertThat(repos.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void intercept_shouldRecordZero_whenNotModified() {
+        server.expect(requestTo("https://api.github.com/users/octocat"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        restTemplate.getForEntity("https://api.github.com/users/octocat", String.class);
+
+        assertThat(summary(GithubResilience.USER_ENDPOINT).count()).isEqualTo(1);
+        assertThat(summary(GithubResilience.USER_ENDPOINT).totalAmount()).isZero();
+    }
+
+    private DistributionSummary summary(String endpoint) {
+        return registry.get("github.client.response.size").tag("endpoint", endpoint).summary();
+    }
+}
@@ -0,0 +1,53 @@
+package com.brand.octocat.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseSizeValveTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResponseSizeValve valve = new ResponseSizeValve(registry);
+
+    @Test
+    void log_shouldRecordBytesWritten_taggedWithRoutePattern() {
+        valve.log(request("/api/github/users/{username}"), response(200, 512), 3);
+        valve.log(request("/api/github/users/{username}"), response(200, 256), 3);
+
+        DistributionSummary sizes = registry.get("http.server.response.size")
+                .tag("uri", "/api/github/users/{username}")
+                .tag("status", "200")
+                .summary();
+        assertThat(sizes.count()).isEqualTo(2);
+        assertThat(sizes.totalAmount()).isEqualTo(768);
+    }
+
+    @Test
+    void log_shouldNotTagRawPath_whenNoRouteMatched() {
+        valve.log(request(null), response(404, 64), 1);
+
+        assertThat(registry.get("http.server.response.size").summaries())
+                .singleElement()
+                .satisfies(summary -> assertThat(summary.getId().getTag("uri")).isEqualTo(ResponseSizeValve.UNKNOWN_URI));
+    }
+
+    private static Request request(String pattern) {
+        Request request = mock(Request.class);
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn(pattern);
+        return request;
+    }
+
+    private static Response response(int status, long bytes) {
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getBytesWritten(false)).thenReturn(bytes);
+        return response;
+    }
+}
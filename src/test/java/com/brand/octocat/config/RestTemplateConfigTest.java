@@ -2,17 +2,63 @@ package com.brand.octocat.config;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 class RestTemplateConfigTest {
 
     @Test
     void githubRestTemplate_shouldCreateRestTemplate() {
-        RestTemplateConfig config = new RestTemplateConfig("https://api.github.com");
-        RestTemplate restTemplate = config.githubRestTemplate(new RestTemplateBuilder());
+        RestTemplateConfig config = new RestTemplateConfig("https://api.github.com", "");
+        RestTemplate restTemplate = config.githubRestTemplate(new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(),
+                new RateLimitGovernor(0.1, "rest"), new ResponseSizeInterceptor());
 
         assertThat(restTemplate).isNotNull();
     }
+
+    @Test
+    void githubRestTemplate_shouldUseGivenRequestFactory() {
+        ClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        RestTemplateConfig config = new RestTemplateConfig("https://api.github.com", "");
+        RestTemplate restTemplate = config.githubRestTemplate(new RestTemplateBuilder(), requestFactory,
+                new RateLimitGovernor(0.1, "rest"), new ResponseSizeInterceptor());
+
+        // getRequestFactory() wraps the factory once interceptors are registered
+        assertThat(ReflectionTestUtils.getField(restTemplate, "requestFactory")).isSameAs(requestFactory);
+    }
+
+    @Test
+    void githubRestTemplate_shouldRegisterInterceptors() {
+        RateLimitGovernor governor = new RateLimitGovernor(0.1, "rest");
+        ResponseSizeInterceptor responseSizes = new ResponseSizeInterceptor();
+        RestTemplateConfig config = new RestTemplateConfig("https://api.github.com", "");
+        RestTemplate restTemplate = config.githubRestTemplate(new RestTemplateBuilder(),
+                new SimpleClientHttpRequestFactory(), governor, responseSizes);
+
+        assertThat(restTemplate.getInterceptors()).containsExactly(governor, responseSizes);
+    }
+
+    @Test
+    void githubRestTemplate_shouldAuthenticate_whenTokenIsSet() {
+        RestTemplateConfig config = new RestTemplateConfig("https://api.github.com", "test-token");
+        RestTemplate restTemplate = config.githubRestTemplate(new RestTemplateBuilder(),
+                new SimpleClientHttpRequestFactory(), new RateLimitGovernor(0.1, "rest"), new ResponseSizeInterceptor());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://api.github.com/users/octocat"))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer test-token"))
+                .andRespond(withSuccess());
+
+        restTemplate.getForObject("/users/octocat", String.class);
+
+        server.verify();
+    }
 }
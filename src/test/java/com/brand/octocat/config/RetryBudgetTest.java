@@ -0,0 +1,42 @@
+package com.brand.octocat.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void tryAcquireRetry_shouldAllowInitialBurst_thenRefuse() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    void recordRequest_shouldEarnOneRetryPerTenRequests_atTenPercentRatio() {
+        RetryBudget budget = new RetryBudget(0.1, 1);
+        budget.tryAcquireRetry();
+
+        for (int i = 0; i < 9; i++) {
+            budget.recordRequest();
+        }
+        assertThat(budget.tryAcquireRetry()).isFalse();
+
+        budget.recordRequest();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+    }
+
+    @Test
+    void recordRequest_shouldNotGrowBeyondMinTokens() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+
+        assertThat(budget.getAvailableRetries()).isEqualTo(2.0);
+    }
+}
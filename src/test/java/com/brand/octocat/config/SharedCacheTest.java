@@ -0,0 +1,95 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SharedCacheTest {
+
+    private final InMemorySharedUserStore store = new InMemorySharedUserStore();
+
+    private final ConcurrentMapCache nearA = new ConcurrentMapCache(CacheConfig.USERS_CACHE);
+    private final ConcurrentMapCache nearB = new ConcurrentMapCache(CacheConfig.USERS_CACHE);
+
+    private final SharedCache replicaA = new SharedCache(nearA, store, Duration.ofHours(1));
+    private final SharedCache replicaB = new SharedCache(nearB, store, Duration.ofHours(1));
+
+    @Test
+    void tryLease_shouldAdmitOneHolder_untilReleasedOrExpired() {
+        assertThat(store.tryLease("octocat", Duration.ofSeconds(10))).isTrue();
+        assertThat(store.tryLease("octocat", Duration.ofSeconds(10))).isFalse();
+
+        store.releaseLease("octocat");
+        assertThat(store.tryLease("octocat", Duration.ZERO)).isTrue();
+        assertThat(store.tryLease("octocat", Duration.ofSeconds(10))).isTrue();
+    }
+
+    @Test
+    void get_shouldServeEntryWrittenByAnotherReplica_andKeepItNear() {
+        replicaA.put("octocat", entry("The Octocat"));
+
+        assertThat(replicaB.get("octocat", CachedUser.class)).isEqualTo(entry("The Octocat"));
+        assertThat(nearB.get("octocat", CachedUser.class)).isEqualTo(entry("The Octocat"));
+    }
+
+    @Test
+    void put_shouldInvalidateNearCopiesOnOtherReplicas() {
+        replicaA.put("octocat", entry("The Octocat"));
+        replicaB.get("octocat");
+
+        replicaA.put("octocat", entry("Mona"));
+
+        assertThat(nearB.get("octocat")).isNull();
+        assertThat(replicaB.get("octocat", CachedUser.class).user().displayName()).isEqualTo("Mona");
+        assertThat(nearA.get("octocat", CachedUser.class).user().displayName()).isEqualTo("Mona");
+    }
+
+    @Test
+    void evictAndClear_shouldReachTheStoreAndEveryReplica() {
+        replicaA.put("octocat", entry("The Octocat"));
+        replicaA.put("hubot", entry("Hubot"));
+        replicaB.get("octocat");
+        replicaB.get("hubot");
+
+        replicaA.evict("octocat");
+
+        assertThat(replicaB.get("octocat")).isNull();
+        assertThat(nearB.get("hubot")).isNotNull();
+
+        replicaB.clear();
+
+        assertThat(nearA.get("hubot")).isNull();
+        assertThat(replicaA.get("hubot")).isNull();
+    }
+
+    @Test
+    void shouldRunOnNearCache_whenSharedStoreFails() {
+        SharedUserStore failing = mock(SharedUserStore.class);
+        when(failing.get(anyString())).thenThrow(new IllegalStateException("connection refused"));
+        doThrow(new IllegalStateException("connection refused")).when(failing).put(anyString(), any(), any());
+        SharedCache cache = new SharedCache(new ConcurrentMapCache(CacheConfig.USERS_CACHE), failing, Duration.ofHours(1));
+
+        assertThat(cache.get("octocat")).isNull();
+
+        cache.put("octocat", entry("The Octocat"));
+
+        assertThat(cache.get("octocat", CachedUser.class)).isEqualTo(entry("The Octocat"));
+    }
+
+    private static CachedUser entry(String displayName) {
+        return new CachedUser(new UserDto("octocat", displayName, "avatar", null, null, "url", null, List.of()),
+                List.of(), List.of(), Instant.parse("2026-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TieredCacheTest {
+
+    @Mock
+    private DiskUserStore disk;
+
+    private final ConcurrentMapCache memory = new ConcurrentMapCache(CacheConfig.USERS_CACHE);
+
+    private final CachedUser entry = new CachedUser(
+            new UserDto("octocat", "The Octocat", "avatar", null, null, "url", null, List.of()),
+            List.of(), List.of(), Instant.parse("2026-01-01T00:00:00Z"));
+
+    private TieredCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new TieredCache(memory, disk);
+    }
+
+    @Test
+    void get_shouldLoadFromDiskOnMemoryMiss_andPromoteEntry() {
+        when(disk.get("octocat")).thenReturn(Optional.of(entry));
+
+        assertThat(cache.get("octocat", CachedUser.class)).isEqualTo(entry);
+        assertThat(cache.get("octocat", CachedUser.class)).isEqualTo(entry);
+
+        assertThat(memory.get("octocat", CachedUser.class)).isEqualTo(entry);
+        verify(disk).get("octocat");
+    }
+
+    @Test
+    void get_shouldPromoteDiskHitIntoNearCacheOnly_whenMemoryTierIsShared() {
+        InMemorySharedUserStore store = new InMemorySharedUserStore();
+        List<String> invalidations = new ArrayList<>();
+        store.subscribe(invalidations::add);
+        SharedCache shared = new SharedCache(memory, store, Duration.ofMinutes(30));
+        TieredCache tiered = new TieredCache(shared, disk);
+        when(disk.get("octocat")).thenReturn(Optional.of(entry));
+
+        assertThat(tiered.get("octocat", CachedUser.class)).isEqualTo(entry);
+
+        assertThat(memory.get("octocat", CachedUser.class)).isEqualTo(entry);
+        assertThat(store.get("octocat")).isNull();
+        assertThat(invalidations).isEmpty();
+    }
+
+    @Test
+    void get_shouldReturnNull_whenNeitherTierHasEntry() {
+        when(disk.get("missing")).thenReturn(Optional.empty());
+
+        assertThat(cache.get("missing")).isNull();
+    }
+
+    @Test
+    void put_shouldWriteThroughToDisk() {
+        cache.put("octocat", entry);
+
+        assertThat(memory.get("octocat", CachedUser.class)).isEqualTo(entry);
+        verify(disk).put("octocat", entry);
+    }
+
+    @Test
+    void evict_shouldRemoveFromBothTiers() {
+        memory.put("octocat", entry);
+
+        cache.evict("octocat");
+
+        assertThat(memory.get("octocat")).isNull();
+        verify(disk).evict("octocat");
+        verify(disk, never()).get("octocat");
+    }
+}
@@ -0,0 +1,44 @@
+package com.brand.octocat.config;
+
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserWeigherTest {
+
+    @Test
+    void weigh_shouldGrowWithRepoCount() {
+        int none = UserWeigher.weigh("octocat", user(0));
+        int some = UserWeigher.weigh("octocat", user(10));
+        int many = UserWeigher.weigh("octocat", user(1_000));
+
+        assertThat(none).isPositive();
+        assertThat(some).isGreaterThan(none);
+        assertThat(many).isGreaterThan(some * 50);
+    }
+
+    @Test
+    void weigh_shouldHandleNullRepos() {
+        UserDto dto = new UserDto("octocat", null, null, null, null, "url", null, null);
+
+        assertThat(UserWeigher.weigh("octocat", dto)).isPositive();
+    }
+
+    @Test
+    void weigh_shouldReturnAtLeastOne_forUnknownValues() {
+        assertThat(UserWeigher.weigh(null, new Object())).isEqualTo(1);
+    }
+
+    private static UserDto user(int repoCount) {
+        List<RepoDto> repos = IntStream.range(0, repoCount)
+                .mapToObj(i -> new RepoDto("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList();
+        return new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", repos);
+    }
+}
@@ -0,0 +1,111 @@
+package com.brand.octocat.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent GitHub calls on the executor built with {@code spring.threads.virtual.enabled}.
+ * The stub holds every request until all of them have arrived, which a pool of
+ * {@code PLATFORM_THREADS} could never reach. The timing comparison with a platform pool is
+ * {@code VirtualThreadBenchmark} in {@code src/jmh}. Only runs on Java 21+.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadRequestsTest {
+
+    private static final int REQUESTS = 200;
+    private static final int PLATFORM_THREADS = 50;
+
+    private final CountDownLatch allArrived = new CountDownLatch(REQUESTS);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private GithubClient client;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/users/", exchange -> {
+            allArrived.countDown();
+            boolean released;
+            try {
+                released = allArrived.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                released = false;
+            }
+            byte[] body = "{\"login\":\"octocat\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(released ? 200 : 503, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        HttpTransportConfig transport = new HttpTransportConfig(false, REQUESTS, REQUESTS, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofMinutes(5));
+        GithubResilience resilience = new GithubResilience(1, Duration.ofMillis(1), Duration.ofMillis(1), 0.1, 10,
+                REQUESTS, Duration.ofSeconds(30));
+        client = new GithubClient(new RestTemplateBuilder()
+                .rootUri("http://localhost:" + server.getAddress().getPort())
+                .requestFactory(transport::githubRequestFactory)
+                .build(), new SyncTaskExecutor(), resilience);
+        ReflectionTestUtils.setField(client, "userPath", "/users/{username}");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void virtualThreads_shouldServeMoreConcurrentRequests_thanPlatformPool() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+        // without the property this would be a pool of PLATFORM_THREADS platform threads
+        AsyncTaskExecutor executor = new ExecutorConfig(PLATFORM_THREADS, 100, 4, 50, 8, 1000)
+                .githubExecutor(environment);
+
+        assertThat(executor).isInstanceOfSatisfying(SimpleAsyncTaskExecutor.class, simple ->
+                assertThat(simple.isThrottleActive()).isFalse());
+
+        List<Future<Boolean>> futures = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> executor.submit(() -> {
+                    client.getUser("octocat");
+                    return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+                }))
+                .toList();
+
+        for (Future<Boolean> future : futures) {
+            assertThat(future.get(30, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(allArrived.getCount()).isZero();
+    }
+}
@@ -0,0 +1,169 @@
+package com.brand.octocat.controller;
+
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.dto.BatchUserDto;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.brand.octocat.service.GithubBatchService;
+import com.brand.octocat.service.GithubService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(GithubBulkController.class)
+class GithubBulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private GithubService service;
+
+    @MockitoBean
+    private GithubBatchService batchService;
+
+    @Test
+    void post_shouldReturnPerUserResults_inRequestOrder() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", List.of());
+
+        when(batchService.getUsers(List.of("octocat", "missing"))).thenReturn(List.of(
+                BatchUserDto.found("octocat", dto, false),
+                BatchUserDto.failed("missing", HttpStatus.NOT_FOUND, "GitHub user not found: missing")));
+
+        mockMvc.perform(post("/api/github/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[\"octocat\",\"missing\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].username").value("octocat"))
+                .andExpect(jsonPath("$[0].status").value("OK"))
+                .andExpect(jsonPath("$[0].user.user_name").value("octocat"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].username").value("missing"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].error").value("GitHub user not found: missing"))
+                .andExpect(jsonPath("$[1].user").doesNotExist());
+    }
+
+    @Test
+    void post_shouldReturn400_whenBatchInvalid() throws Exception {
+        when(batchService.getUsers(List.of()))
+                .thenThrow(new IllegalArgumentException("Usernames must not be empty"));
+
+        mockMvc.perform(post("/api/github/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Usernames must not be empty"));
+    }
+
+    @Test
+    void get_shouldStreamProfileThenRepos_whenNdjsonRequested() throws Exception {
+        UserDto profile = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", null);
+
+        when(service.getProfile("octocat")).thenReturn(profile);
+        doAnswer(invocation -> {
+            Consumer<List<RepoDto>> consumer = invocation.getArgument(1);
+            consumer.accept(List.of(new RepoDto("repo-1", "url-1"), new RepoDto("repo-2", "url-2")));
+            consumer.accept(List.of(new RepoDto("repo-3", "url-3")));
+            return null;
+        }).when(service).forEachReposPage(eq("octocat"), any());
+
+        MvcResult result = mockMvc.perform(get("/api/github/octocat").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).contains("\"user_name\":\"octocat\"").doesNotContain("repos");
+        assertThat(lines[1]).isEqualTo("{\"name\":\"repo-1\",\"url\":\"url-1\"}");
+        assertThat(lines[3]).isEqualTo("{\"name\":\"repo-3\",\"url\":\"url-3\"}");
+    }
+
+    @Test
+    void get_shouldEndStreamWithErrorLine_whenGithubFailsMidStream() throws Exception {
+        UserDto profile = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", null);
+
+        when(service.getProfile("octocat")).thenReturn(profile);
+        doAnswer(invocation -> {
+            Consumer<List<RepoDto>> consumer = invocation.getArgument(1);
+            consumer.accept(List.of(new RepoDto("repo-1", "url-1")));
+            throw new RestClientException("GitHub timeout");
+        }).when(service).forEachReposPage(eq("octocat"), any());
+
+        MvcResult result = mockMvc.perform(get("/api/github/octocat").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines[1]).isEqualTo("{\"name\":\"repo-1\",\"url\":\"url-1\"}");
+        assertThat(lines[2]).isEqualTo(
+                "{\"username\":\"octocat\",\"status\":\"SERVICE_UNAVAILABLE\",\"error\":\"GitHub timeout\"}");
+    }
+
+    @Test
+    void get_shouldReturn404BeforeStreaming_whenUserNotFound() throws Exception {
+        when(service.getProfile("missing")).thenThrow(new UsernameNotFoundException("missing"));
+
+        mockMvc.perform(get("/api/github/missing").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("User Not Found"));
+    }
+
+    @Test
+    void post_shouldStreamOneLinePerUser_whenNdjsonRequested() throws Exception {
+        when(batchService.streamUsers(List.of("octocat", "missing"))).thenReturn(Stream.of(
+                BatchUserDto.failed("missing", HttpStatus.NOT_FOUND, "GitHub user not found: missing"),
+                BatchUserDto.failed("octocat", HttpStatus.SERVICE_UNAVAILABLE, "GitHub timeout")));
+
+        MvcResult result = mockMvc.perform(post("/api/github/users")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[\"octocat\",\"missing\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"username\":\"missing\"", "\"status\":\"NOT_FOUND\"");
+        assertThat(lines[1]).contains("\"username\":\"octocat\"");
+    }
+
+}
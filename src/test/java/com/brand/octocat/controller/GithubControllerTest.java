@@ -1,33 +1,67 @@
 package com.brand.octocat.controller;
 
+import com.brand.octocat.config.EncodedUserCache;
+import com.brand.octocat.error.RateLimitExceededException;
 import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.mapper.GithubMapperImpl;
 import com.brand.octocat.model.dto.UserDto;
 import com.brand.octocat.service.GithubService;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.service.UserResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(GithubController.class)
+@Import({EncodedUserCache.class, GithubMapperImpl.class})
 class GithubControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
     private GithubService service;
 
+    @MockitoSpyBean
+    private EncodedUserCache encodedUsers;
+
     @Test
     void get_shouldReturnUserDto_whenUserExists() throws Exception {
         UserDto dto = new UserDto(
@@ -41,7 +75,7 @@ class GithubControllerTest {
                 List.of()
         );
 
-        when(service.getUser("octocat")).thenReturn(dto);
+        when(service.lookupUser("octocat")).thenReturn(UserResult.fresh(dto));
 
         mockMvc.perform(get("/api/github/octocat"))
                 .andExpect(status().isOk())
@@ -49,6 +83,215 @@ class GithubControllerTest {
                 .andExpect(jsonPath("$.display_name").value("The Octocat"));
     }
 
+    @Test
+    void get_shouldMarkResponseAsStale_whenServedFromStaleEntry() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", List.of());
+
+        when(service.lookupUser("octocat")).thenReturn(new UserResult(dto, true, Duration.ofMinutes(45), null));
+
+        mockMvc.perform(get("/api/github/octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "2700"))
+                .andExpect(header().string("Warning", "111 - \"Revalidation Failed\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.user_name").value("octocat"));
+    }
+
+    @Test
+    void get_shouldServeGzipVariant_whenClientAcceptsGzip() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", IntStream.range(0, 100)
+                .mapToObj(i -> new RepoDto("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList());
+        when(service.lookupUser("octocat")).thenReturn(UserResult.fresh(dto));
+
+        MvcResult plain = mockMvc.perform(get("/api/github/octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        MvcResult gzipped = mockMvc.perform(get("/api/github/octocat")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] json = plain.getResponse().getContentAsByteArray();
+        byte[] compressed = gzipped.getResponse().getContentAsByteArray();
+        assertThat(compressed.length).isLessThan(json.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(json);
+        }
+        JsonNode body = objectMapper.readTree(json);
+        assertThat(body.get("user_name").asText()).isEqualTo("octocat");
+        assertThat(body.get("repos")).hasSize(100);
+    }
+
+    @Test
+    void get_shouldServePlainJson_whenGzipRefused() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", IntStream.range(0, 100)
+                .mapToObj(i -> new RepoDto("repo-" + i, "url-" + i))
+                .toList());
+        when(service.lookupUser("octocat")).thenReturn(UserResult.fresh(dto));
+
+        mockMvc.perform(get("/api/github/octocat").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.repos.length()").value(100));
+    }
+
+    @Test
+    void get_shouldSendValidatorsAndFreshness_forCachedUser() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", List.of());
+        Instant modifiedAt = Instant.parse("2026-01-01T00:00:00Z");
+        when(service.lookupUser("octocat"))
+                .thenReturn(new UserResult(dto, false, Duration.ofMinutes(4), modifiedAt));
+
+        mockMvc.perform(get("/api/github/octocat"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[0-9a-f]{32}\"")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=360"))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, modifiedAt.toEpochMilli()));
+    }
+
+    @Test
+    void get_shouldAnswer304WithoutBody_whenETagMatches() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", IntStream.range(0, 100)
+                .mapToObj(i -> new RepoDto("repo-" + i, "url-" + i))
+                .toList());
+        when(service.lookupUser("octocat")).thenReturn(UserResult.fresh(dto));
+
+        String etag = mockMvc.perform(get("/api/github/octocat"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = mockMvc.perform(get("/api/github/octocat").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(gzipEtag).isNotEqualTo(etag);
+        mockMvc.perform(get("/api/github/octocat").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/github/octocat")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/github/octocat").header(HttpHeaders.IF_NONE_MATCH, "\"outdated\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void get_shouldAnswer304FromStoredHash_withoutEncodingTheUser() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", List.of());
+        Instant modifiedAt = Instant.parse("2026-01-01T00:00:00Z");
+        String hash = "0123456789abcdef0123456789abcdef";
+        when(service.lookupUser("octocat"))
+                .thenReturn(new UserResult(dto, false, Duration.ofMinutes(4), modifiedAt, hash));
+
+        mockMvc.perform(get("/api/github/octocat").header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"" + hash + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=360"))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, modifiedAt.toEpochMilli()))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/github/octocat").header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "-gzip\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""));
+
+        verify(encodedUsers).get(any(), any());
+    }
+
+    @Test
+    void get_shouldReturnOnlySelectedFields_andSkipRepos_whenReposNotRequested() throws Exception {
+        UserDto profile = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", null);
+        when(service.lookupProfile("octocat")).thenReturn(UserResult.fresh(profile));
+
+        MvcResult result = mockMvc.perform(get("/api/github/octocat").param("fields", "user_name, avatar"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[0-9a-f]{32}\"")))
+                .andReturn();
+
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.properties()).extracting(Map.Entry::getKey).containsExactly("user_name", "avatar");
+        verify(service, never()).lookupUser("octocat");
+    }
+
+    @Test
+    void get_shouldPageThroughRepos_followingNextLinks() throws Exception {
+        UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", IntStream.range(0, 5)
+                .mapToObj(i -> new RepoDto("repo-" + i, "url-" + i))
+                .toList());
+        when(service.lookupUser("octocat")).thenReturn(UserResult.fresh(dto));
+
+        MvcResult first = mockMvc.perform(get("/api/github/octocat").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_name").value("octocat"))
+                .andExpect(jsonPath("$.repos[*].name").value(contains("repo-0", "repo-1")))
+                .andReturn();
+        String next = nextLink(first);
+        assertThat(next).contains("limit=2").contains("cursor=");
+
+        MvcResult second = mockMvc.perform(get(next))
+                .andExpect(jsonPath("$.repos[*].name").value(contains("repo-2", "repo-3")))
+                .andReturn();
+        mockMvc.perform(get(nextLink(second)))
+                .andExpect(jsonPath("$.repos[*].name").value(contains("repo-4")))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void get_shouldReturn400_forUnknownFieldOrInvalidPaging() throws Exception {
+        mockMvc.perform(get("/api/github/octocat").param("fields", "user_name,followers"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Unknown field 'followers'")));
+        mockMvc.perform(get("/api/github/octocat").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/github/octocat").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void get_shouldReturn400_whenLimitIsNotANumber() throws Exception {
+        mockMvc.perform(get("/api/github/octocat").param("limit", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("Invalid value 'abc' for parameter 'limit'"))
+                .andExpect(jsonPath("$.timestamp").exists());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void cursor_shouldRoundTripOffsets() {
+        assertThat(GithubController.decodeCursor(GithubController.encodeCursor(0))).isZero();
+        assertThat(GithubController.decodeCursor(GithubController.encodeCursor(1234))).isEqualTo(1234);
+        assertThat(GithubController.decodeCursor(null)).isZero();
+    }
+
+    private static String nextLink(MvcResult result) {
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).endsWith(">; rel=\"next\"");
+        return link.substring(1, link.indexOf('>'));
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertThat(GithubController.acceptsGzip(null)).isFalse();
+        assertThat(GithubController.acceptsGzip("identity")).isFalse();
+        assertThat(GithubController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(GithubController.acceptsGzip("GZIP;q=0.5")).isTrue();
+        assertThat(GithubController.acceptsGzip("*")).isTrue();
+        assertThat(GithubController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(GithubController.acceptsGzip("gzip;q=0.0")).isFalse();
+    }
+
     @Test
     void get_shouldReturn400_whenUsernameBlank() throws Exception {
         mockMvc.perform(get("/api/github/ "))
@@ -61,7 +304,7 @@ class GithubControllerTest {
 
     @Test
     void get_shouldReturn404_whenUserNotFound() throws Exception {
-        when(service.getUser("missing"))
+        when(service.lookupUser("missing"))
                 .thenThrow(new UsernameNotFoundException("missing"));
 
         mockMvc.perform(get("/api/github/missing"))
@@ -84,7 +327,7 @@ class GithubControllerTest {
 
     @Test
     void get_shouldReturn503_whenRestClientExceptionOccurs() throws Exception {
-        when(service.getUser("octocat"))
+        when(service.lookupUser("octocat"))
                 .thenThrow(new RestClientException("GitHub timeout"));
 
         mockMvc.perform(get("/api/github/octocat"))
@@ -97,7 +340,7 @@ class GithubControllerTest {
 
     @Test
     void get_shouldReturn503_whenHttpClientErrorExceptionOccurs() throws Exception {
-        when(service.getUser("octocat"))
+        when(service.lookupUser("octocat"))
                 .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Bad Request"));
 
         mockMvc.perform(get("/api/github/octocat"))
@@ -108,9 +351,23 @@ class GithubControllerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @Test
+    void get_shouldReturn429WithRetryAfter_whenRateLimitExhausted() throws Exception {
+        when(service.lookupUser("octocat"))
+                .thenThrow(new RateLimitExceededException(Duration.ofSeconds(120)));
+
+        mockMvc.perform(get("/api/github/octocat"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "120"))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"))
+                .andExpect(jsonPath("$.status").value("TOO_MANY_REQUESTS"))
+                .andExpect(jsonPath("$.message").value("GitHub rate limit exhausted, retry after 120s"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
     @Test
     void get_shouldReturn500_whenUnexpectedExceptionOccurs() throws Exception {
-        when(service.getUser("octocat"))
+        when(service.lookupUser("octocat"))
                 .thenThrow(new RuntimeException("boom"));
 
         mockMvc.perform(get("/api/github/octocat"))
@@ -0,0 +1,131 @@
+package com.brand.octocat.controller;
+
+import com.brand.octocat.config.EncodedUserCache;
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.brand.octocat.service.ReactiveGithubService;
+import com.brand.octocat.service.UserResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveGithubController.class)
+@Import(EncodedUserCache.class)
+@TestPropertySource(properties = "github.reactive.enabled=true")
+class ReactiveGithubControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactiveGithubService service;
+
+    private final UserDto dto = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+            "Tue, 25 Jan 2011 18:44:36 GMT", List.of());
+
+    @Test
+    void get_shouldReturnUserDtoAsynchronously() throws Exception {
+        when(service.lookupUser("octocat")).thenReturn(Mono.just(UserResult.fresh(dto)));
+
+        MvcResult result = mockMvc.perform(get("/api/github/octocat"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_name").value("octocat"));
+    }
+
+    @Test
+    void get_shouldMarkResponseAsStale_whenServedFromStaleEntry() throws Exception {
+        when(service.lookupUser("octocat"))
+                .thenReturn(Mono.just(new UserResult(dto, true, Duration.ofMinutes(45), null)));
+
+        MvcResult result = mockMvc.perform(get("/api/github/octocat")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "2700"))
+                .andExpect(header().string("Warning", "111 - \"Revalidation Failed\""));
+    }
+
+    @Test
+    void get_shouldMapErrorsLikeBlockingController() throws Exception {
+        when(service.lookupUser("missing")).thenReturn(Mono.error(new UsernameNotFoundException("missing")));
+
+        MvcResult result = mockMvc.perform(get("/api/github/missing")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("User Not Found"))
+                .andExpect(jsonPath("$.message").value("GitHub user not found: missing"));
+    }
+
+    @Test
+    void get_shouldReturn400_whenUsernameBlank() throws Exception {
+        mockMvc.perform(get("/api/github/ "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Username must not be empty"));
+    }
+
+    @Test
+    void get_shouldServeGzipVariant_andAnswer304_forMatchingETag() throws Exception {
+        UserDto large = new UserDto("octocat", "The Octocat", "avatar", "San Francisco", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", IntStream.range(0, 100)
+                .mapToObj(i -> new RepoDto("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList());
+        String hash = "0123456789abcdef0123456789abcdef";
+        when(service.lookupUser("octocat"))
+                .thenReturn(Mono.just(new UserResult(large, false, Duration.ZERO, null, hash)));
+
+        MvcResult gzipped = mockMvc.perform(get("/api/github/octocat").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(gzipped))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "-gzip\""));
+
+        MvcResult conditional = mockMvc.perform(get("/api/github/octocat")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(conditional))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void get_shouldReturn400_forProjectionAndPagingParameters() throws Exception {
+        mockMvc.perform(get("/api/github/octocat").param("fields", "user_name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(
+                        "fields, limit and cursor are not supported when github.reactive.enabled is set"));
+        mockMvc.perform(get("/api/github/octocat").param("limit", "2"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/github/octocat").param("cursor", "MA"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+}
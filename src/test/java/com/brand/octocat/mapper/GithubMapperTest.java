@@ -1,6 +1,5 @@
 package com.brand.octocat.mapper;
 
-import com.brand.octocat.model.api.GithubRepoResponse;
 import com.brand.octocat.model.api.GithubUserResponse;
 import com.brand.octocat.model.dto.RepoDto;
 import com.brand.octocat.model.dto.UserDto;
@@ -30,9 +29,9 @@ class GithubMapperTest {
                 OffsetDateTime.parse("2011-01-25T18:44:36Z")
         );
 
-        List<GithubRepoResponse> repos = List.of(
-                new GithubRepoResponse("repo-1", "https://api.github.com/repos/octocat/repo-1"),
-                new GithubRepoResponse("repo-2", "https://api.github.com/repos/octocat/repo-2")
+        List<RepoDto> repos = List.of(
+                new RepoDto("repo-1", "https://api.github.com/repos/octocat/repo-1"),
+                new RepoDto("repo-2", "https://api.github.com/repos/octocat/repo-2")
         );
 
         // when
@@ -127,19 +126,19 @@ class GithubMapperTest {
     }
 
     @Test
-    void toRepoDto_shouldMapFieldsCorrectly() {
+    void withRepos_shouldKeepProfileAndReplaceRepos() {
         // given
-        GithubRepoResponse repo = new GithubRepoResponse(
-                "demo-repo",
-                "https://api.github.com/repos/octocat/demo-repo"
-        );
+        UserDto user = new UserDto("octocat", "The Octocat", "avatar", "SF", null, "url",
+                "Tue, 25 Jan 2011 18:44:36 GMT", List.of(new RepoDto("old", "old-url")));
+        List<RepoDto> repos = List.of(new RepoDto("new", "new-url"));
 
         // when
-        RepoDto dto = mapper.toRepoDto(repo);
+        UserDto dto = mapper.withRepos(user, repos);
 
         // then
-        assertThat(dto.name()).isEqualTo("demo-repo");
-        assertThat(dto.url()).isEqualTo("https://api.github.com/repos/octocat/demo-repo");
+        assertThat(dto.userName()).isEqualTo("octocat");
+        assertThat(dto.createdAt()).isEqualTo("Tue, 25 Jan 2011 18:44:36 GMT");
+        assertThat(dto.repos()).containsExactly(new RepoDto("new", "new-url"));
     }
 
     @Test
@@ -0,0 +1,58 @@
+package com.brand.octocat.model.api;
+
+import com.brand.octocat.model.dto.RepoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GithubReposPageDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void deserialize_shouldKeepOnlyTopLevelNameAndUrl() throws Exception {
+        String json = """
+                [
+                  {
+                    "id": 1296269,
+                    "owner": {"login": "octocat", "url": "https://api.github.com/users/octocat"},
+                    "name": "Hello-World",
+                    "topics": ["octocat", "api"],
+                    "license": {"key": "mit", "url": "https://api.github.com/licenses/mit"},
+                    "url": "https://api.github.com/repos/octocat/Hello-World",
+                    "private": false
+                  },
+                  {"url": "https://api.github.com/repos/octocat/Spoon-Knife", "name": "Spoon-Knife"}
+                ]
+                """;
+
+        GithubReposPage page = objectMapper.readValue(json, GithubReposPage.class);
+
+        assertThat(page.repos()).containsExactly(
+                new RepoDto("Hello-World", "https://api.github.com/repos/octocat/Hello-World"),
+                new RepoDto("Spoon-Knife", "https://api.github.com/repos/octocat/Spoon-Knife"));
+    }
+
+    @Test
+    void deserialize_shouldLeaveMissingOrNonTextFieldsNull() throws Exception {
+        String json = "[{\"name\": null, \"url\": {\"html\": \"x\"}}, {}]";
+
+        GithubReposPage page = objectMapper.readValue(json, GithubReposPage.class);
+
+        assertThat(page.repos()).containsExactly(new RepoDto(null, null), new RepoDto(null, null));
+    }
+
+    @Test
+    void deserialize_shouldReadEmptyPage() throws Exception {
+        assertThat(objectMapper.readValue("[]", GithubReposPage.class).repos()).isEmpty();
+    }
+
+    @Test
+    void deserialize_shouldRejectNonArrayPayload() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"message\":\"Not Found\"}", GithubReposPage.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.config.CacheConfig;
+import com.brand.octocat.config.RateLimitGovernor;
+import com.brand.octocat.model.dto.BatchUserDto;
+import com.brand.octocat.model.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupTest {
+
+    @Mock
+    private GithubBatchService batchService;
+
+    @Mock
+    private RateLimitGovernor rateLimitGovernor;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @TempDir
+    private Path dir;
+
+    private final CaffeineCache usersCache = new CaffeineCache(CacheConfig.USERS_CACHE,
+            Caffeine.newBuilder().maximumSize(100).build());
+
+    private CacheWarmup warmup;
+
+    @BeforeEach
+    void setup() {
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        warmup = new CacheWarmup(batchService, rateLimitGovernor, cacheManager);
+
+        // simulate @Value injection
+        ReflectionTestUtils.setField(warmup, "enabled", true);
+        ReflectionTestUtils.setField(warmup, "usernames", List.of());
+        ReflectionTestUtils.setField(warmup, "file", "");
+        ReflectionTestUtils.setField(warmup, "hotUsersFile", dir.resolve("hot-users.txt").toString());
+        ReflectionTestUtils.setField(warmup, "maxUsers", 10);
+        ReflectionTestUtils.setField(warmup, "readyFraction", 0.5);
+        ReflectionTestUtils.setField(warmup, "readyTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(warmup, "batchSize", 2);
+    }
+
+    @Test
+    void hotUsers_shouldMergeSourcesWithoutDuplicates_andCapAtMaxUsers() throws IOException {
+        Path file = dir.resolve("warmup.txt");
+        Files.write(file, List.of("# curated", "hubot", "", "  octocat  ", "defunkt"));
+        Files.write(dir.resolve("hot-users.txt"), List.of("mojombo", "hubot"));
+        ReflectionTestUtils.setField(warmup, "usernames", List.of("octocat", " "));
+        ReflectionTestUtils.setField(warmup, "file", file.toString());
+        ReflectionTestUtils.setField(warmup, "maxUsers", 3);
+
+        assertThat(warmup.hotUsers()).containsExactly("octocat", "hubot", "defunkt");
+    }
+
+    @Test
+    void warmUp_shouldLoadInBatches_andReportReadyOnceFinished() {
+        ReflectionTestUtils.setField(warmup, "usernames", List.of("a", "b", "c"));
+        when(rateLimitGovernor.backgroundBudget()).thenReturn(1000L);
+        when(batchService.streamUsers(List.of("a", "b"))).thenReturn(Stream.of(found("a"), found("b")));
+        when(batchService.streamUsers(List.of("c"))).thenReturn(Stream.of(
+                BatchUserDto.failed("c", HttpStatus.NOT_FOUND, "User not found")));
+
+        warmup.warmUp();
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmup.health().getDetails())
+                .containsEntry("total", 3)
+                .containsEntry("loaded", 2)
+                .containsEntry("failed", 1);
+    }
+
+    @Test
+    void warmUp_shouldStop_whenRateLimitBudgetReachesReserve() {
+        ReflectionTestUtils.setField(warmup, "usernames", List.of("a", "b", "c"));
+        when(rateLimitGovernor.backgroundBudget()).thenReturn(1000L, 0L);
+        when(batchService.streamUsers(List.of("a", "b"))).thenReturn(Stream.of(found("a"), found("b")));
+
+        warmup.warmUp();
+
+        verify(batchService, never()).streamUsers(List.of("c"));
+        assertThat(warmup.health().getDetails()).containsEntry("loaded", 2);
+    }
+
+    @Test
+    void warmUp_shouldShrinkBatches_asBudgetApproachesReserve() {
+        ReflectionTestUtils.setField(warmup, "usernames", List.of("a", "b", "c", "d", "e"));
+        ReflectionTestUtils.setField(warmup, "batchSize", 100);
+        // unknown, then 5 calls above the reserve (2 users), then 3 (1 user), then at the reserve
+        when(rateLimitGovernor.backgroundBudget()).thenReturn(-1L, 5L, 3L, 1L);
+        when(batchService.streamUsers(List.of("a"))).thenReturn(Stream.of(found("a")));
+        when(batchService.streamUsers(List.of("b", "c"))).thenReturn(Stream.of(found("b"), found("c")));
+        when(batchService.streamUsers(List.of("d"))).thenReturn(Stream.of(found("d")));
+
+        warmup.warmUp();
+
+        verify(batchService, never()).streamUsers(List.of("e"));
+        assertThat(warmup.health().getDetails()).containsEntry("loaded", 4);
+    }
+
+    @Test
+    void health_shouldBeOutOfService_untilReadyFractionHasLoaded() {
+        ReflectionTestUtils.setField(warmup, "total", 4);
+        ReflectionTestUtils.setField(warmup, "startedAt", Instant.now());
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        ((AtomicInteger) ReflectionTestUtils.getField(warmup, "loaded")).set(2);
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void health_shouldBeUp_whenDisabled() {
+        ReflectionTestUtils.setField(warmup, "enabled", false);
+
+        warmup.start();
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+        verify(batchService, never()).streamUsers(anyList());
+    }
+
+    @Test
+    void recordHotUsers_shouldWriteCachedUsers_forTheNextRun() {
+        usersCache.put("octocat", "entry");
+        usersCache.put("hubot", "entry");
+
+        warmup.recordHotUsers();
+
+        assertThat(warmup.hotUsers()).containsExactlyInAnyOrder("octocat", "hubot");
+    }
+
+    private static BatchUserDto found(String username) {
+        return BatchUserDto.found(username, new UserDto(username, null, null, null, null, null, null, List.of()), false);
+    }
+}
@@ -0,0 +1,161 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.error.RateLimitExceededException;
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.model.dto.BatchUserDto;
+import com.brand.octocat.model.dto.UserDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GithubBatchServiceTest {
+
+    @Mock
+    private GithubService service;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private GithubBatchService batchService;
+
+    @BeforeEach
+    void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+
+        batchService = new GithubBatchService(service, executor);
+        // simulate @Value injection
+        ReflectionTestUtils.setField(batchService, "maxSize", 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void getUsers_shouldReturnResultsInRequestOrder_withPerUserErrors() {
+        UserDto octocat = user("octocat");
+        UserDto hubot = user("hubot");
+
+        when(service.getCachedUser(anyString())).thenAnswer(invocation ->
+                "octocat".equals(invocation.getArgument(0)) ? Optional.of(UserResult.fresh(octocat)) : Optional.empty());
+        when(service.lookupUser("hubot")).thenReturn(new UserResult(hubot, true, Duration.ofHours(1), null));
+        when(service.lookupUser("missing")).thenThrow(new UsernameNotFoundException("missing"));
+        when(service.lookupUser("limited")).thenThrow(new RateLimitExceededException(Duration.ofSeconds(60)));
+        when(service.lookupUser("down")).thenThrow(new RestClientException("GitHub timeout"));
+
+        List<BatchUserDto> results = batchService.getUsers(List.of("missing", "octocat", "hubot", "limited", "down"));
+
+        assertThat(results).extracting(BatchUserDto::username)
+                .containsExactly("missing", "octocat", "hubot", "limited", "down");
+        assertThat(results).extracting(BatchUserDto::status).containsExactly(
+                HttpStatus.NOT_FOUND, HttpStatus.OK, HttpStatus.OK, HttpStatus.TOO_MANY_REQUESTS, HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(results.get(1).user()).isSameAs(octocat);
+        assertThat(results.get(1).stale()).isNull();
+        assertThat(results.get(2).stale()).isTrue();
+        assertThat(results.get(0).error()).isEqualTo("GitHub user not found: missing");
+        verify(service, never()).lookupUser("octocat");
+    }
+
+    @Test
+    void getUsers_shouldResolveDuplicatesOnce_andRejectBlankUsernames() {
+        when(service.getCachedUser("octocat")).thenReturn(Optional.empty());
+        when(service.lookupUser("octocat")).thenReturn(UserResult.fresh(user("octocat")));
+
+        List<BatchUserDto> results = batchService.getUsers(Arrays.asList("octocat", " ", "octocat"));
+
+        assertThat(results).extracting(BatchUserDto::status).containsExactly(HttpStatus.OK, HttpStatus.BAD_REQUEST);
+        verify(service, times(1)).lookupUser("octocat");
+    }
+
+    @Test
+    void getUsers_shouldResolveUsernamesDifferingInCaseOnce() {
+        when(service.getCachedUser("Octocat")).thenReturn(Optional.empty());
+        when(service.lookupUser("Octocat")).thenReturn(UserResult.fresh(user("octocat")));
+
+        List<BatchUserDto> results = batchService.getUsers(List.of("Octocat", "octocat", "OCTOCAT"));
+
+        assertThat(results).extracting(BatchUserDto::username).containsExactly("Octocat");
+        verify(service, times(1)).lookupUser(anyString());
+    }
+
+    @Test
+    void getUsers_shouldCapConcurrentFetches_atExecutorPoolSize() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(service.getCachedUser(anyString())).thenReturn(Optional.empty());
+        when(service.lookupUser(anyString())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            release.await(100, TimeUnit.MILLISECONDS);
+            active.decrementAndGet();
+            return UserResult.fresh(user(invocation.getArgument(0)));
+        });
+
+        List<BatchUserDto> results = batchService.getUsers(List.of("a", "b", "c", "d", "e"));
+
+        assertThat(results).allMatch(result -> result.status() == HttpStatus.OK);
+        assertThat(peak.get()).isEqualTo(2);
+    }
+
+    @Test
+    void streamUsers_shouldEmitResultsInCompletionOrder() throws Exception {
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+
+        when(service.getCachedUser(anyString())).thenReturn(Optional.empty());
+        when(service.lookupUser("slow")).thenAnswer(invocation -> {
+            releaseSlow.await(5, TimeUnit.SECONDS);
+            return UserResult.fresh(user("slow"));
+        });
+        when(service.lookupUser("fast")).thenReturn(UserResult.fresh(user("fast")));
+
+        Iterator<BatchUserDto> results = batchService.streamUsers(List.of("slow", "fast")).iterator();
+
+        assertThat(results.next().username()).isEqualTo("fast");
+        releaseSlow.countDown();
+        assertThat(results.next().username()).isEqualTo("slow");
+        assertThat(results.hasNext()).isFalse();
+    }
+
+    @Test
+    void getUsers_shouldRejectEmptyOrOversizedBatches() {
+        assertThatThrownBy(() -> batchService.getUsers(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Usernames must not be empty");
+        assertThatThrownBy(() -> batchService.getUsers(List.of("a", "b", "c", "d", "e", "f")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 5 usernames are allowed per batch");
+    }
+
+    private static UserDto user(String username) {
+        return new UserDto(username, null, "avatar", null, null, "url", "Tue, 25 Jan 2011 18:44:36 GMT", List.of());
+    }
+}
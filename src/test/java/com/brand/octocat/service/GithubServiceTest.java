@@ -1,21 +1,68 @@
 package com.brand.octocat.service;
 
 
+import com.brand.octocat.config.CacheConfig;
+import com.brand.octocat.config.CachedUserCodec;
 import com.brand.octocat.config.GithubClient;
+import com.brand.octocat.config.GithubGraphqlClient;
+import com.brand.octocat.config.InMemorySharedUserStore;
+import com.brand.octocat.config.NegativeUserCache;
+import com.brand.octocat.config.RateLimitGovernor;
+import com.brand.octocat.config.SharedCache;
+import com.brand.octocat.config.SharedUserStore;
+import com.brand.octocat.error.UsernameNotFoundException;
 import com.brand.octocat.mapper.GithubMapper;
-import com.brand.octocat.model.api.GithubRepoResponse;
+import com.brand.octocat.model.api.Conditional;
 import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.api.Validator;
+import com.brand.octocat.model.cache.CachedUser;
+import com.brand.octocat.model.dto.RepoDto;
 import com.brand.octocat.model.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -29,48 +76,112 @@ class GithubServiceTest {
     @Mock
     private GithubMapper mapper;
 
-    @InjectMocks
+    private ThreadPoolTaskExecutor executor;
+
+    private ThreadPoolTaskExecutor refreshExecutor;
+
+    private final RateLimitGovernor rateLimitGovernor = new RateLimitGovernor(0.1, "rest");
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private final NegativeUserCache negativeCache =
+            new NegativeUserCache(NegativeUserCache.Mode.EXACT, Duration.ofMinutes(5), 100, 0.01, clock);
+
     private GithubService service;
 
+    private final GithubUserResponse user = new GithubUserResponse(
+            "octocat",
+            "The Octocat",
+            "avatar-url",
+            "San Francisco",
+            null,
+            "https://api.github.com/users/octocat",
+            OffsetDateTime.parse("2011-01-25T18:44:36Z")
+    );
+
+    private final List<RepoDto> repos = List.of(
+            new RepoDto(
+                    "repo-1",
+                    "https://api.github.com/repos/octocat/repo-1"
+            ),
+            new RepoDto(
+                    "repo-2",
+                    "https://api.github.com/repos/octocat/repo-2"
+            )
+    );
+
+    private final Conditional<GithubUserResponse> userResponse =
+            Conditional.of(user, List.of(new Validator("\"user-etag\"", null)));
+
+    private final Conditional<List<RepoDto>> reposResponse =
+            Conditional.of(repos, List.of(new Validator("\"repos-etag\"", null)));
+
+    private final UserDto expectedDto = new UserDto(
+            "octocat",
+            "The Octocat",
+            "avatar-url",
+            "San Francisco",
+            null,
+            "https://api.github.com/users/octocat",
+            "Tue, 25 Jan 2011 18:44:36 GMT",
+            List.of() // or mapped repos, but for this test it's enough
+    );
+
+    @BeforeEach
+    void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+
+        refreshExecutor = new ThreadPoolTaskExecutor();
+        refreshExecutor.setCorePoolSize(1);
+        refreshExecutor.setMaxPoolSize(1);
+        refreshExecutor.initialize();
+
+        service = newService(new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE, CacheConfig.USERS_STALE_CACHE));
+    }
+
+    private GithubService newService(CacheManager cacheManager) {
+        return newService(cacheManager, null);
+    }
+
+    private GithubService newService(CacheManager cacheManager, SharedUserStore sharedStore) {
+        GithubService githubService = new GithubService(client, mapper, executor, refreshExecutor, rateLimitGovernor,
+                negativeCache, cacheManager, Optional.empty(), Optional.ofNullable(sharedStore));
+        // simulate @Value injection
+        ReflectionTestUtils.setField(githubService, "parallel", true);
+        ReflectionTestUtils.setField(githubService, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(githubService, "hardTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(githubService, "maxStaleness", Duration.ofHours(24));
+        ReflectionTestUtils.setField(githubService, "revalidate", true);
+        ReflectionTestUtils.setField(githubService, "lease", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(githubService, "clock", clock);
+        return githubService;
+    }
+
+    private static CacheManager sharedCacheManager(InMemorySharedUserStore sharedStore) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new SharedCache(new ConcurrentMapCache(CacheConfig.USERS_CACHE), sharedStore, Duration.ofHours(1)),
+                new ConcurrentMapCache(CacheConfig.USERS_STALE_CACHE)));
+        cacheManager.initializeCaches();
+        return cacheManager;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        refreshExecutor.shutdown();
+    }
+
     @Test
     void getUser_shouldFetchUserAndReposAndMapToDto() {
         // arrange
         String username = "octocat";
 
-        GithubUserResponse user = new GithubUserResponse(
-                "octocat",
-                "The Octocat",
-                "avatar-url",
-                "San Francisco",
-                null,
-                "https://api.github.com/users/octocat",
-                OffsetDateTime.parse("2011-01-25T18:44:36Z")
-        );
-
-        List<GithubRepoResponse> repos = List.of(
-                new GithubRepoResponse(
-                        "repo-1",
-                        "https://api.github.com/repos/octocat/repo-1"
-                ),
-                new GithubRepoResponse(
-                        "repo-2",
-                        "https://api.github.com/repos/octocat/repo-2"
-                )
-        );
-
-        UserDto expectedDto = new UserDto(
-                "octocat",
-                "The Octocat",
-                "avatar-url",
-                "San Francisco",
-                null,
-                "https://api.github.com/users/octocat",
-                "Tue, 25 Jan 2011 18:44:36 GMT",
-                List.of() // or mapped repos, but for this test it's enough
-        );
-
-        when(client.getUser(username)).thenReturn(user);
-        when(client.getRepos(username)).thenReturn(repos);
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
         when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
 
         // act
@@ -79,10 +190,690 @@ class GithubServiceTest {
         // assert
         assertThat(result).isSameAs(expectedDto);
 
-        verify(client).getUser(username);
-        verify(client).getRepos(username);
+        verify(client).getUser(username, List.of());
+        verify(client).getRepos(username, List.of(), null);
         verify(mapper).toUserDto(user, repos);
 
         verifyNoMoreInteractions(client, mapper);
     }
+
+    @Test
+    void getUser_shouldFetchThroughGraphql_whenGraphqlUpstreamIsSelected() {
+        GithubGraphqlClient graphqlClient = mock(GithubGraphqlClient.class);
+        GithubService graphqlService = new GithubService(client, mapper, executor, refreshExecutor,
+                rateLimitGovernor, negativeCache,
+                new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE, CacheConfig.USERS_STALE_CACHE),
+                Optional.of(graphqlClient), Optional.empty());
+        ReflectionTestUtils.setField(graphqlService, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(graphqlService, "hardTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(graphqlService, "clock", clock);
+
+        when(graphqlClient.getUserWithRepos("octocat"))
+                .thenReturn(new GithubGraphqlClient.UserWithRepos(user, repos));
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        assertThat(graphqlService.getUser("octocat")).isSameAs(expectedDto);
+        assertThat(graphqlService.getUser("octocat")).isSameAs(expectedDto);
+
+        verify(graphqlClient, times(1)).getUserWithRepos("octocat");
+        verifyNoMoreInteractions(client);
+    }
+
+    @Test
+    void getUser_shouldRecordMappingTime_andExposeInFlightFetches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        when(client.getUser("octocat", List.of())).thenReturn(userResponse);
+        when(client.getRepos("octocat", List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        service.getUser("octocat");
+
+        assertThat(registry.get("github.mapping").tag("mode", "blocking").timer().count()).isEqualTo(1);
+        assertThat(registry.get("github.fetch.in-flight").tag("mode", "blocking").gauge().value()).isZero();
+    }
+
+    @Test
+    void getUser_shouldFetchOnce_acrossReplicasSharingTheCache() {
+        InMemorySharedUserStore sharedStore = new InMemorySharedUserStore();
+        GithubService replicaA = newService(sharedCacheManager(sharedStore), sharedStore);
+        GithubService replicaB = newService(sharedCacheManager(sharedStore), sharedStore);
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        assertThat(replicaA.getUser(username)).isSameAs(expectedDto);
+        assertThat(replicaB.getUser(username)).isEqualTo(expectedDto);
+
+        verify(client, times(1)).getUser(username, List.of());
+        verify(client, times(1)).getRepos(username, List.of(), null);
+    }
+
+    @Test
+    void getUser_shouldFetchOnce_whenReplicasMissConcurrently() throws Exception {
+        CountDownLatch replicaBWaiting = new CountDownLatch(1);
+        InMemorySharedUserStore sharedStore = new InMemorySharedUserStore() {
+            @Override
+            public boolean tryLease(String key, Duration lease) {
+                boolean taken = super.tryLease(key, lease);
+                if (!taken) {
+                    replicaBWaiting.countDown();
+                }
+                return taken;
+            }
+        };
+        GithubService replicaA = newService(sharedCacheManager(sharedStore), sharedStore);
+        GithubService replicaB = newService(sharedCacheManager(sharedStore), sharedStore);
+        String username = "octocat";
+        CountDownLatch fetching = new CountDownLatch(1);
+
+        when(client.getUser(username, List.of())).thenAnswer(invocation -> {
+            fetching.countDown();
+            assertThat(replicaBWaiting.await(5, TimeUnit.SECONDS)).isTrue();
+            return userResponse;
+        });
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        CompletableFuture<UserDto> fromA = CompletableFuture.supplyAsync(() -> replicaA.getUser(username));
+        assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(replicaB.getUser(username)).isEqualTo(expectedDto);
+        assertThat(fromA.get(5, TimeUnit.SECONDS)).isSameAs(expectedDto);
+        verify(client, times(1)).getUser(username, List.of());
+        verify(client, times(1)).getRepos(username, List.of(), null);
+    }
+
+    @Test
+    void getUser_shouldFetchSequentially_whenParallelDisabled() {
+        ReflectionTestUtils.setField(service, "parallel", false);
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        UserDto result = service.getUser(username);
+
+        assertThat(result).isSameAs(expectedDto);
+        assertThat(executor.getActiveCount()).isZero();
+    }
+
+    @Test
+    void getUser_shouldCancelReposFetch_whenUserNotFound() throws Exception {
+        String username = "missing";
+        CountDownLatch reposStarted = new CountDownLatch(1);
+        CountDownLatch reposInterrupted = new CountDownLatch(1);
+        CountDownLatch reposAnswered = new CountDownLatch(1);
+
+        when(client.getRepos(username, List.of(), null)).thenAnswer(invocation -> {
+            reposStarted.countDown();
+            try {
+                // never counted down, only the cancellation ends the wait
+                reposAnswered.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                reposInterrupted.countDown();
+            }
+            return reposResponse;
+        });
+        when(client.getUser(username, List.of())).thenAnswer(invocation -> {
+            reposStarted.await(1, TimeUnit.SECONDS);
+            throw new UsernameNotFoundException(username);
+        });
+
+        assertThatThrownBy(() -> service.getUser(username))
+                .isInstanceOf(UsernameNotFoundException.class)
+                .hasMessage("GitHub user not found: missing");
+
+        assertThat(reposInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        verify(mapper, never()).toUserDto(any(), any());
+    }
+
+    @Test
+    void getUser_shouldShareOneEntry_acrossSpellingsOfUsername() {
+        when(client.getUser("Octocat", List.of())).thenReturn(userResponse);
+        when(client.getRepos("Octocat", List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        assertThat(service.getUser("Octocat")).isSameAs(expectedDto);
+        assertThat(service.getUser("octocat")).isSameAs(expectedDto);
+        assertThat(service.getCachedUser("OCTOCAT")).map(UserResult::user).containsSame(expectedDto);
+
+        verify(client, times(1)).getUser("Octocat", List.of());
+        verifyNoMoreInteractions(client);
+    }
+
+    @Test
+    void getUser_shouldAnswerRecentlyMissingUser_withoutCallingGithub() {
+        String username = "missing";
+        lenient().when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(client.getUser(username, List.of())).thenThrow(new UsernameNotFoundException(username));
+
+        assertThatThrownBy(() -> service.getUser(username)).isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> service.getUser("MISSING")).isInstanceOf(UsernameNotFoundException.class);
+        verify(client, times(1)).getUser(username, List.of());
+
+        clock.advance(Duration.ofMinutes(6));
+
+        assertThatThrownBy(() -> service.getUser(username)).isInstanceOf(UsernameNotFoundException.class);
+        verify(client, times(2)).getUser(username, List.of());
+    }
+
+    @Test
+    void getUser_shouldRethrowReposFailure_whenFetchingConcurrently() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenThrow(new RestClientException("GitHub timeout"));
+
+        assertThatThrownBy(() -> service.getUser(username))
+                .isInstanceOf(RestClientException.class)
+                .hasMessage("GitHub timeout");
+    }
+
+    @Test
+    void getUser_shouldOverlapProfileAndReposFetches_whenParallel() {
+        String username = "octocat";
+        // each call only returns once the other one is in flight too
+        CyclicBarrier bothInFlight = new CyclicBarrier(2);
+
+        when(client.getUser(username, List.of())).thenAnswer(invocation -> {
+            bothInFlight.await(1, TimeUnit.SECONDS);
+            return userResponse;
+        });
+        when(client.getRepos(username, List.of(), null)).thenAnswer(invocation -> {
+            bothInFlight.await(1, TimeUnit.SECONDS);
+            return reposResponse;
+        });
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        service = newService(new NoOpCacheManager());
+        ReflectionTestUtils.setField(service, "parallel", true);
+
+        assertThat(service.getUser(username)).isSameAs(expectedDto);
+    }
+
+    @Test
+    void getUser_shouldServeFromCache_onSecondCall() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        service.getUser(username);
+        UserDto result = service.getUser(username);
+
+        assertThat(result).isSameAs(expectedDto);
+        verify(client, times(1)).getUser(username, List.of());
+        verify(client, times(1)).getRepos(username, List.of(), null);
+    }
+
+    @Test
+    void getUser_shouldIssueOnePairOfGithubCalls_forConcurrentColdRequests() throws Exception {
+        String username = "octocat";
+        int callers = 32;
+        CountDownLatch arrived = new CountDownLatch(callers);
+
+        // the one GitHub call answers only once every caller has asked for the user
+        when(client.getUser(username, List.of())).thenAnswer(invocation -> {
+            arrived.await(5, TimeUnit.SECONDS);
+            return userResponse;
+        });
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        List<UserDto> results = runConcurrently(callers, () -> {
+            arrived.countDown();
+            return service.getUser(username);
+        });
+
+        assertThat(results).hasSize(callers).allSatisfy(result -> assertThat(result).isSameAs(expectedDto));
+        verify(client, times(1)).getUser(username, List.of());
+        verify(client, times(1)).getRepos(username, List.of(), null);
+        assertThat(service.inFlightCount()).isZero();
+    }
+
+    @Test
+    void getUser_shouldPropagateNotFoundToEveryWaiter_forConcurrentColdRequests() throws Exception {
+        String username = "missing";
+        int callers = 16;
+        CountDownLatch arrived = new CountDownLatch(callers);
+
+        lenient().when(client.getRepos(username, List.of(), null)).thenReturn(Conditional.of(List.of(), List.of()));
+        when(client.getUser(username, List.of())).thenAnswer(invocation -> {
+            arrived.await(5, TimeUnit.SECONDS);
+            throw new UsernameNotFoundException(username);
+        });
+
+        List<Object> outcomes = runConcurrently(callers, () -> {
+            arrived.countDown();
+            try {
+                return service.getUser(username);
+            } catch (UsernameNotFoundException ex) {
+                return ex;
+            }
+        });
+
+        assertThat(outcomes).hasSize(callers).allSatisfy(outcome ->
+                assertThat(outcome).isInstanceOf(UsernameNotFoundException.class));
+        verify(client, times(1)).getUser(username, List.of());
+    }
+
+    @Test
+    void getUser_shouldRevalidateWithValidators_andKeepEntry_whenGithubReturns304() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        clock.advance(Duration.ofMinutes(31));
+        when(client.getUser(username, userResponse.validators())).thenReturn(Conditional.unchanged());
+        when(client.getRepos(username, reposResponse.validators(), expectedDto.repos())).thenReturn(Conditional.unchanged());
+
+        UserDto revalidated = service.getUser(username);
+        UserDto cached = service.getUser(username);
+
+        assertThat(revalidated).isSameAs(expectedDto);
+        assertThat(cached).isSameAs(expectedDto);
+        verify(client, times(1)).getUser(username, userResponse.validators());
+        verify(client, times(1)).getRepos(username, reposResponse.validators(), expectedDto.repos());
+        verify(mapper, times(1)).toUserDto(user, repos);
+        verifyNoMoreInteractions(mapper);
+    }
+
+    @Test
+    void lookupUser_shouldKeepLastModified_acrossRevalidations_untilDataChanges() {
+        String username = "octocat";
+        Instant firstFetch = clock.instant();
+        List<RepoDto> newRepos = List.of(new RepoDto("repo-3", "url-3"));
+        UserDto updatedDto = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", newRepos);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.lookupUser(username);
+
+        clock.advance(Duration.ofMinutes(31));
+        when(client.getUser(username, userResponse.validators())).thenReturn(Conditional.unchanged());
+        when(client.getRepos(username, reposResponse.validators(), expectedDto.repos())).thenReturn(Conditional.unchanged());
+        UserResult revalidated = service.lookupUser(username);
+
+        assertThat(revalidated.age()).isZero();
+        assertThat(revalidated.lastModified()).isEqualTo(firstFetch);
+        assertThat(revalidated.contentHash()).isEqualTo(CachedUserCodec.contentHash(expectedDto));
+
+        clock.advance(Duration.ofMinutes(31));
+        Instant changedAt = clock.instant();
+        when(client.getRepos(username, reposResponse.validators(), expectedDto.repos()))
+                .thenReturn(Conditional.of(newRepos, List.of(new Validator("\"repos-etag-2\"", null))));
+        when(mapper.withRepos(expectedDto, newRepos)).thenReturn(updatedDto);
+
+        UserResult changed = service.lookupUser(username);
+        assertThat(changed.lastModified()).isEqualTo(changedAt);
+        assertThat(changed.contentHash()).isEqualTo(CachedUserCodec.contentHash(updatedDto))
+                .isNotEqualTo(revalidated.contentHash());
+    }
+
+    @Test
+    void getUser_shouldRemapOnlyRepos_whenProfileUnchangedButReposChanged() {
+        String username = "octocat";
+        List<RepoDto> newRepos = List.of(new RepoDto("repo-3", "url-3"));
+        UserDto updatedDto = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", newRepos);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        clock.advance(Duration.ofMinutes(31));
+        when(client.getUser(username, userResponse.validators())).thenReturn(Conditional.unchanged());
+        when(client.getRepos(username, reposResponse.validators(), expectedDto.repos()))
+                .thenReturn(Conditional.of(newRepos, List.of(new Validator("\"repos-etag-2\"", null))));
+        when(mapper.withRepos(expectedDto, newRepos)).thenReturn(updatedDto);
+
+        assertThat(service.getUser(username)).isSameAs(updatedDto);
+    }
+
+    @Test
+    void getUser_shouldFetchUnconditionally_whenRevalidationDisabled() {
+        String username = "octocat";
+        ReflectionTestUtils.setField(service, "revalidate", false);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        service.getUser(username);
+        clock.advance(Duration.ofMinutes(31));
+        service.getUser(username);
+
+        verify(client, times(2)).getUser(username, List.of());
+        verify(client, times(2)).getRepos(username, List.of(), null);
+    }
+
+    @Test
+    void getUser_shouldServeStaleEntry_andRefreshOnceInBackground_betweenSoftAndHardTtl() throws Exception {
+        String username = "octocat";
+        UserDto refreshedDto = new UserDto("octocat", "Refreshed", null, null, null, "url", null, List.of());
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        clock.advance(Duration.ofMinutes(11));
+        when(client.getUser(username, userResponse.validators())).thenAnswer(invocation -> {
+            refreshStarted.countDown();
+            releaseRefresh.await(1, TimeUnit.SECONDS);
+            return Conditional.of(user, userResponse.validators());
+        });
+        when(client.getRepos(username, reposResponse.validators(), expectedDto.repos())).thenReturn(Conditional.unchanged());
+        when(mapper.toUserDto(user, null)).thenReturn(refreshedDto);
+        when(mapper.withRepos(refreshedDto, expectedDto.repos())).thenReturn(refreshedDto);
+
+        assertThat(service.getUser(username)).isSameAs(expectedDto);
+        assertThat(refreshStarted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.getUser(username)).isSameAs(expectedDto);
+        releaseRefresh.countDown();
+
+        refreshExecutor.getThreadPoolExecutor().shutdown();
+        assertThat(refreshExecutor.getThreadPoolExecutor().awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(service.getUser(username)).isSameAs(refreshedDto);
+        verify(client, times(1)).getUser(username, userResponse.validators());
+    }
+
+    @Test
+    void getUser_shouldSkipBackgroundRefresh_whenRateLimitBudgetIsLow() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        HttpHeaders budget = new HttpHeaders();
+        budget.set("X-RateLimit-Remaining", "50");
+        budget.set("X-RateLimit-Limit", "5000");
+        budget.set("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+        ReflectionTestUtils.invokeMethod(rateLimitGovernor, "update", "core", 200, budget);
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(service.getUser(username)).isSameAs(expectedDto);
+        assertThat(refreshExecutor.getThreadPoolExecutor().getTaskCount()).isZero();
+    }
+
+    @Test
+    void lookupUser_shouldReportModificationTimeAndAge_ofCachedEntry() {
+        String username = "octocat";
+        Instant fetchedAt = clock.instant();
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        assertThat(service.lookupUser(username).lastModified()).isEqualTo(fetchedAt);
+        clock.advance(Duration.ofMinutes(3));
+        UserResult cached = service.lookupUser(username);
+
+        assertThat(cached.lastModified()).isEqualTo(fetchedAt);
+        assertThat(cached.age()).isEqualTo(Duration.ofMinutes(3));
+        assertThat(cached.stale()).isFalse();
+    }
+
+    @Test
+    void getUser_shouldBlockOnGithub_pastHardTtl() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        clock.advance(Duration.ofMinutes(31));
+        when(client.getUser(username, userResponse.validators())).thenReturn(Conditional.unchanged());
+        when(client.getRepos(username, reposResponse.validators(), expectedDto.repos())).thenReturn(Conditional.unchanged());
+
+        assertThat(service.getUser(username)).isSameAs(expectedDto);
+        assertThat(refreshExecutor.getThreadPoolExecutor().getCompletedTaskCount()).isZero();
+        verify(client, times(1)).getUser(username, userResponse.validators());
+    }
+
+    @Test
+    void lookupUser_shouldServeStaleEntry_whenGithubFailsPastHardTtl() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        clock.advance(Duration.ofHours(2));
+        when(client.getUser(username, userResponse.validators())).thenThrow(new RestClientException("GitHub timeout"));
+
+        UserResult result = service.lookupUser(username);
+
+        assertThat(result.stale()).isTrue();
+        assertThat(result.user()).isSameAs(expectedDto);
+        assertThat(result.age()).isEqualTo(Duration.ofHours(2));
+    }
+
+    @Test
+    void lookupUser_shouldServeFromStaleTier_whenEntryWasEvicted() {
+        ConcurrentMapCacheManager cacheManager =
+                new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE, CacheConfig.USERS_STALE_CACHE);
+        service = newService(cacheManager);
+        String username = "octocat";
+        CachedUser evicted = new CachedUser(expectedDto, List.of(), List.of(), clock.instant());
+        cacheManager.getCache(CacheConfig.USERS_STALE_CACHE).put(username, evicted);
+
+        clock.advance(Duration.ofHours(3));
+        lenient().when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(client.getUser(username, List.of())).thenThrow(new RestClientException("GitHub timeout"));
+
+        UserResult result = service.lookupUser(username);
+
+        assertThat(result.stale()).isTrue();
+        assertThat(result.user()).isSameAs(expectedDto);
+    }
+
+    @Test
+    void lookupUser_shouldRethrow_whenStaleEntryIsTooOld() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        clock.advance(Duration.ofHours(25));
+        when(client.getUser(username, userResponse.validators())).thenThrow(new RestClientException("GitHub timeout"));
+
+        assertThatThrownBy(() -> service.lookupUser(username))
+                .isInstanceOf(RestClientException.class)
+                .hasMessage("GitHub timeout");
+    }
+
+    @Test
+    void lookupUser_shouldNotFallBack_whenUserNotFound() {
+        String username = "octocat";
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        clock.advance(Duration.ofHours(2));
+        when(client.getUser(username, userResponse.validators())).thenThrow(new UsernameNotFoundException(username));
+
+        assertThatThrownBy(() -> service.lookupUser(username)).isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void getCachedUser_shouldReturnEntryWithoutCallingGithub_onlyWhileServable() {
+        String username = "octocat";
+        assertThat(service.getCachedUser(username)).isEmpty();
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        service.getUser(username);
+
+        assertThat(service.getCachedUser(username)).hasValueSatisfying(result -> {
+            assertThat(result.user()).isSameAs(expectedDto);
+            assertThat(result.stale()).isFalse();
+        });
+
+        clock.advance(Duration.ofMinutes(31));
+        assertThat(service.getCachedUser(username)).isEmpty();
+        verify(client, times(1)).getUser(any(), any());
+    }
+
+    @Test
+    void streaming_shouldReplayCachedUser_withoutCallingGithub() {
+        String username = "octocat";
+        UserDto cached = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT",
+                List.of(new RepoDto("repo-1", "url-1")));
+        UserDto profile = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", null);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(cached);
+        when(mapper.withRepos(cached, null)).thenReturn(profile);
+        service.getUser(username);
+
+        List<List<RepoDto>> pages = new ArrayList<>();
+        assertThat(service.getProfile(username)).isSameAs(profile);
+        service.forEachReposPage(username, pages::add);
+
+        assertThat(pages).containsExactly(cached.repos());
+        verify(client, times(1)).getUser(username, List.of());
+        verify(client, never()).forEachReposPage(any(), any());
+    }
+
+    @Test
+    void streaming_shouldPassGithubPagesThrough_onCacheMiss() {
+        String username = "octocat";
+        UserDto profile = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", null);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(mapper.toUserDto(user, null)).thenReturn(profile);
+        doAnswer(invocation -> {
+            Consumer<List<RepoDto>> consumer = invocation.getArgument(1);
+            consumer.accept(repos);
+            consumer.accept(repos);
+            return null;
+        }).when(client).forEachReposPage(eq(username), any());
+
+        List<List<RepoDto>> pages = new ArrayList<>();
+        assertThat(service.getProfile(username)).isSameAs(profile);
+        service.forEachReposPage(username, pages::add);
+
+        assertThat(pages).containsExactly(repos, repos);
+        assertThat(service.getCachedUser(username)).isEmpty();
+    }
+
+    @Test
+    void lookupProfile_shouldSkipRepos_andLaterFullLookupShouldFetchOnlyRepos() {
+        String username = "octocat";
+        UserDto profile = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", null);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(mapper.toUserDto(user, null)).thenReturn(profile);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.withRepos(profile, repos)).thenReturn(expectedDto);
+
+        UserResult profileResult = service.lookupProfile(username);
+        assertThat(profileResult.user()).isSameAs(profile);
+        assertThat(service.getCachedUser(username)).isEmpty();
+        verify(client, never()).getRepos(any(), any(), any());
+
+        clock.advance(Duration.ofMinutes(2));
+        UserResult full = service.lookupUser(username);
+
+        assertThat(full.user()).isSameAs(expectedDto);
+        assertThat(full.age()).isEqualTo(Duration.ofMinutes(2));
+        assertThat(service.lookupUser(username).user()).isSameAs(expectedDto);
+        verify(client, times(1)).getUser(username, List.of());
+        verify(client, times(1)).getRepos(username, List.of(), null);
+    }
+
+    @Test
+    void lookupProfile_shouldStripRepos_fromCachedFullEntry() {
+        String username = "octocat";
+        UserDto profile = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+                "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", null);
+
+        when(client.getUser(username, List.of())).thenReturn(userResponse);
+        when(client.getRepos(username, List.of(), null)).thenReturn(reposResponse);
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+        when(mapper.withRepos(expectedDto, null)).thenReturn(profile);
+        service.lookupUser(username);
+
+        assertThat(service.lookupProfile(username).user()).isSameAs(profile);
+        verify(client, times(1)).getUser(username, List.of());
+    }
+
+    private static <T> List<T> runConcurrently(int callers, Callable<T> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package com.brand.octocat.service;
+
+import com.brand.octocat.config.NegativeUserCache;
+import com.brand.octocat.config.ReactiveGithubClient;
+import com.brand.octocat.error.UsernameNotFoundException;
+import com.brand.octocat.mapper.GithubMapper;
+import com.brand.octocat.model.api.GithubUserResponse;
+import com.brand.octocat.model.dto.RepoDto;
+import com.brand.octocat.model.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestClientException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveGithubServiceTest {
+
+    @Mock
+    private GithubService service;
+
+    @Mock
+    private ReactiveGithubClient client;
+
+    @Mock
+    private GithubMapper mapper;
+
+    private final NegativeUserCache negativeCache =
+            new NegativeUserCache(NegativeUserCache.Mode.EXACT, Duration.ofMinutes(5), 100, 0.01, Clock.systemUTC());
+
+    private ReactiveGithubService reactiveService;
+
+    private final GithubUserResponse user = new GithubUserResponse("octocat", "The Octocat", "avatar-url",
+            "San Francisco", null, "https://api.github.com/users/octocat", OffsetDateTime.parse("2011-01-25T18:44:36Z"));
+
+    private final List<RepoDto> repos = List.of(new RepoDto("repo-1", "url-1"));
+
+    private final UserDto expectedDto = new UserDto("octocat", "The Octocat", "avatar-url", "San Francisco", null,
+            "https://api.github.com/users/octocat", "Tue, 25 Jan 2011 18:44:36 GMT", List.of());
+
+    @BeforeEach
+    void setup() {
+        reactiveService = new ReactiveGithubService(service, client, mapper, negativeCache);
+    }
+
+    @Test
+    void lookupUser_shouldServeCachedUser_withoutCallingGithub() {
+        when(service.getCachedUser("octocat")).thenReturn(Optional.of(UserResult.fresh(expectedDto)));
+
+        UserResult result = reactiveService.lookupUser("octocat").block();
+
+        assertThat(result.user()).isSameAs(expectedDto);
+        verify(client, never()).getUser("octocat");
+    }
+
+    @Test
+    void lookupUser_shouldFetchAndCache_onMiss() {
+        when(service.getCachedUser("octocat")).thenReturn(Optional.empty());
+        when(client.getUser("octocat")).thenReturn(Mono.just(user));
+        when(client.getRepos("octocat")).thenReturn(Mono.just(repos));
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        UserResult result = reactiveService.lookupUser("octocat").block();
+
+        assertThat(result.user()).isSameAs(expectedDto);
+        assertThat(result.stale()).isFalse();
+        verify(service).store("octocat", expectedDto);
+        assertThat(reactiveService.inFlightCount()).isZero();
+    }
+
+    @Test
+    void lookupUser_shouldShareOneFetch_forConcurrentMisses() {
+        Sinks.One<GithubUserResponse> pendingUser = Sinks.one();
+        when(service.getCachedUser("octocat")).thenReturn(Optional.empty());
+        when(client.getUser("octocat")).thenReturn(pendingUser.asMono());
+        when(client.getRepos("octocat")).thenReturn(Mono.just(repos));
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        Mono<UserResult> first = reactiveService.lookupUser("octocat").cache();
+        Mono<UserResult> second = reactiveService.lookupUser("octocat").cache();
+        first.subscribe();
+        second.subscribe();
+        assertThat(reactiveService.inFlightCount()).isEqualTo(1);
+
+        pendingUser.tryEmitValue(user);
+
+        assertThat(first.block().user()).isSameAs(expectedDto);
+        assertThat(second.block().user()).isSameAs(expectedDto);
+        verify(client, times(1)).getUser("octocat");
+    }
+
+    @Test
+    void lookupUser_shouldExposeInFlightFetches_andRecordMappingTime() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        reactiveService.bindTo(registry);
+        Sinks.One<GithubUserResponse> pendingUser = Sinks.one();
+        when(service.getCachedUser("octocat")).thenReturn(Optional.empty());
+        when(client.getUser("octocat")).thenReturn(pendingUser.asMono());
+        when(client.getRepos("octocat")).thenReturn(Mono.just(repos));
+        when(mapper.toUserDto(user, repos)).thenReturn(expectedDto);
+
+        Mono<UserResult> result = reactiveService.lookupUser("octocat").cache();
+        result.subscribe();
+        assertThat(registry.get("github.fetch.in-flight").tag("mode", "reactive").gauge().value()).isEqualTo(1);
+
+        pendingUser.tryEmitValue(user);
+        result.block();
+
+        assertThat(registry.get("github.fetch.in-flight").tag("mode", "reactive").gauge().value()).isZero();
+        assertThat(registry.get("github.mapping").tag("mode", "reactive").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void lookupUser_shouldFallBackToStaleEntry_whenGithubFails() {
+        RestClientException failure = new RestClientException("GitHub timeout");
+        UserResult stale = new UserResult(expectedDto, true, Duration.ofHours(2), null);
+        when(service.getCachedUser("octocat")).thenReturn(Optional.empty());
+        when(client.getUser("octocat")).thenReturn(Mono.error(failure));
+        when(client.getRepos("octocat")).thenReturn(Mono.just(repos));
+        when(service.fallback("octocat", failure)).thenReturn(stale);
+
+        assertThat(reactiveService.lookupUser("octocat").block()).isSameAs(stale);
+    }
+
+    @Test
+    void lookupUser_shouldPropagateError_whenNoStaleEntry() {
+        RestClientException failure = new RestClientException("GitHub timeout");
+        when(service.getCachedUser("octocat")).thenReturn(Optional.empty());
+        when(client.getUser("octocat")).thenReturn(Mono.error(failure));
+        when(client.getRepos("octocat")).thenReturn(Mono.just(repos));
+        when(service.fallback("octocat", failure)).thenThrow(failure);
+
+        assertThatThrownBy(() -> reactiveService.lookupUser("octocat").block()).isSameAs(failure);
+    }
+
+    @Test
+    void lookupUser_shouldAnswerRecentlyMissingUser_withoutCallingGithub() {
+        when(service.getCachedUser("missing")).thenReturn(Optional.empty());
+        when(client.getUser("missing")).thenReturn(Mono.error(new UsernameNotFoundException("missing")));
+        when(client.getRepos("missing")).thenReturn(Mono.just(List.of()));
+
+        assertThatThrownBy(() -> reactiveService.lookupUser("missing").block())
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> reactiveService.lookupUser("missing").block())
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        verify(client, times(1)).getUser("missing");
+    }
+}
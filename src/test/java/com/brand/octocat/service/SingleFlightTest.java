@@ -0,0 +1,76 @@
+package com.brand.octocat.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_shouldShareOneLoad_betweenConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> owner = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        assertThat(loading.await(1, TimeUnit.SECONDS)).isTrue();
+
+        FutureTask<String> waiter = new FutureTask<>(() -> singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        Thread waiterThread = new Thread(waiter);
+        waiterThread.start();
+        // the waiter parks only once it has joined the in-flight load
+        while (waiterThread.getState() != Thread.State.WAITING) {
+            assertThat(waiter.isDone()).isFalse();
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(owner.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(waiter.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void execute_shouldRethrowLoaderException_andReleaseKey() {
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+
+        assertThat(singleFlight.inFlightCount()).isZero();
+        assertThat(singleFlight.execute("key", () -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    void execute_shouldLoadDifferentKeysIndependently() {
+        assertThat(singleFlight.execute("a", () -> "1")).isEqualTo("1");
+        assertThat(singleFlight.execute("b", () -> "2")).isEqualTo("2");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}